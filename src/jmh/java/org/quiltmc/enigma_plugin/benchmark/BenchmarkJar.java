@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProfile;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.service.EnigmaServiceContext;
+import org.quiltmc.enigma.api.service.JarIndexerService;
+import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.QuiltEnigmaPlugin;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+
+/**
+ * A jar opened for the benchmarks, with its classes read in memory and the Enigma indexes built.
+ *
+ * <p>The jar and the other inputs are given by system properties, set by the {@code jmh} Gradle task:
+ * <ul>
+ *     <li>{@value #JAR_PROPERTY}: the jar to index, usually the complete obfuscated test jar</li>
+ *     <li>{@value #PROFILE_PROPERTY}: the Enigma profile used to open the project</li>
+ *     <li>{@value #SIMPLE_TYPE_FIELD_NAMES_PROPERTY}: the simple type field names registry, added to the arguments of the jar indexer</li>
+ *     <li>{@value #OUTPUT_PROPERTY}: the directory where the synthetic jars and the profile are generated</li>
+ * </ul>
+ */
+public final class BenchmarkJar implements ClassProvider {
+	public static final String JAR_PROPERTY = "quilt_enigma_plugin.benchmark.jar";
+	public static final String PROFILE_PROPERTY = "quilt_enigma_plugin.benchmark.profile";
+	public static final String SIMPLE_TYPE_FIELD_NAMES_PROPERTY = "quilt_enigma_plugin.benchmark.simple_type_field_names";
+	public static final String OUTPUT_PROPERTY = "quilt_enigma_plugin.benchmark.output";
+
+	private final Map<String, ClassNode> classes;
+	private final Set<String> scope;
+	private final Enigma enigma;
+	private final EnigmaProject project;
+	private final ProjectClassProvider projectClassProvider;
+
+	private BenchmarkJar(Map<String, ClassNode> classes, Enigma enigma, EnigmaProject project) {
+		this.classes = classes;
+		this.scope = Collections.unmodifiableSet(new LinkedHashSet<>(classes.keySet()));
+		this.enigma = enigma;
+		this.project = project;
+		this.projectClassProvider = new ProjectClassProvider(this, new ClasspathClassProvider());
+	}
+
+	/**
+	 * Opens the benchmark jar, scaled up by the given factor.
+	 *
+	 * @param scale the number of copies of the classes of the jar, see {@link SyntheticJarGenerator}
+	 * @return the opened jar
+	 */
+	public static BenchmarkJar open(int scale) throws IOException {
+		return open(scale, Map.of());
+	}
+
+	/**
+	 * Opens the benchmark jar, scaled up by the given factor, with additional arguments for the name proposal service.
+	 *
+	 * @param scale the number of copies of the classes of the jar, see {@link SyntheticJarGenerator}
+	 * @param proposerArguments additional arguments of the name proposal service
+	 * @return the opened jar
+	 */
+	public static BenchmarkJar open(int scale, Map<String, String> proposerArguments) throws IOException {
+		Path jar = Path.of(requireProperty(JAR_PROPERTY));
+		Path output = Path.of(requireProperty(OUTPUT_PROPERTY));
+
+		if (scale > 1) {
+			String name = jar.getFileName().toString();
+			Path synthetic = output.resolve(name.substring(0, name.length() - ".jar".length()) + "-x" + scale + ".jar");
+
+			if (!Files.exists(synthetic) || Files.getLastModifiedTime(synthetic).compareTo(Files.getLastModifiedTime(jar)) < 0) {
+				SyntheticJarGenerator.generate(jar, synthetic, scale);
+			}
+
+			jar = synthetic;
+		}
+
+		EnigmaProfile profile = EnigmaProfile.read(writeProfile(output.resolve("profile.json"), proposerArguments));
+		Enigma enigma = Enigma.builder().setProfile(profile).build();
+		EnigmaProject project = enigma.openJar(jar, new ClasspathClassProvider(), ProgressListener.createEmpty());
+
+		return new BenchmarkJar(readClasses(jar), enigma, project);
+	}
+
+	/**
+	 * Writes a copy of the benchmark profile with the simple type field names registry, so that every index and proposer runs,
+	 * and the given arguments of the name proposal service.
+	 */
+	private static Path writeProfile(Path path, Map<String, String> proposerArguments) throws IOException {
+		JsonObject profile = JsonParser.parseString(Files.readString(Path.of(requireProperty(PROFILE_PROPERTY)))).getAsJsonObject();
+
+		for (JsonElement service : profile.getAsJsonObject("services").getAsJsonArray("jar_indexer")) {
+			JsonObject serviceObject = service.getAsJsonObject();
+			if (serviceObject.get("id").getAsString().equals(QuiltEnigmaPlugin.INDEX_SERVICE_ID)) {
+				serviceObject.getAsJsonObject("args").addProperty(Arguments.SIMPLE_TYPE_FIELD_NAMES_PATH, requireProperty(SIMPLE_TYPE_FIELD_NAMES_PROPERTY));
+			}
+		}
+
+		for (JsonElement service : profile.getAsJsonObject("services").getAsJsonArray("name_proposal")) {
+			JsonObject serviceObject = service.getAsJsonObject();
+			if (serviceObject.get("id").getAsString().equals(QuiltEnigmaPlugin.NAME_PROPOSAL_SERVICE_ID)) {
+				proposerArguments.forEach(serviceObject.getAsJsonObject("args")::addProperty);
+			}
+		}
+
+		Files.createDirectories(path.getParent());
+		Files.writeString(path, profile.toString());
+		return path;
+	}
+
+	private static Map<String, ClassNode> readClasses(Path jar) throws IOException {
+		Map<String, ClassNode> classes = new LinkedHashMap<>();
+
+		try (var in = new JarInputStream(Files.newInputStream(jar))) {
+			JarEntry entry;
+			while ((entry = in.getNextJarEntry()) != null) {
+				String name = entry.getName();
+				if (name.endsWith(".class") && !name.endsWith("module-info.class")) {
+					var node = new ClassNode();
+					new ClassReader(in.readAllBytes()).accept(node, 0);
+					classes.put(node.name, node);
+				}
+			}
+		}
+
+		return classes;
+	}
+
+	private static String requireProperty(String key) {
+		String value = System.getProperty(key);
+		if (value == null) {
+			throw new IllegalStateException("Missing system property " + key + ", run the benchmarks with the jmh Gradle task");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Creates a service context for the jar indexer, with the simple type field names registry and the given arguments.
+	 * The context is a proxy, as the benchmarks only need the arguments and paths of the context.
+	 *
+	 * @param arguments additional arguments of the context
+	 * @return the service context
+	 */
+	@SuppressWarnings("unchecked")
+	public static EnigmaServiceContext<JarIndexerService> createContext(Map<String, String> arguments) {
+		Map<String, String> allArguments = new HashMap<>(arguments);
+		allArguments.putIfAbsent(Arguments.SIMPLE_TYPE_FIELD_NAMES_PATH, requireProperty(SIMPLE_TYPE_FIELD_NAMES_PROPERTY));
+
+		return (EnigmaServiceContext<JarIndexerService>) Proxy.newProxyInstance(BenchmarkJar.class.getClassLoader(), new Class<?>[] {EnigmaServiceContext.class}, (proxy, method, args) -> switch (method.getName()) {
+			case "getSingleArgument" -> Optional.ofNullable(allArguments.get((String) args[0]));
+			case "getMultipleArguments" -> Optional.<List<String>>empty();
+			case "getPath" -> Path.of((String) args[0]).toAbsolutePath();
+			case "toString" -> "BenchmarkContext" + allArguments;
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "equals" -> proxy == args[0];
+			default -> throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	/**
+	 * {@return the names of the classes of the jar, in the jar's order}
+	 */
+	public Set<String> getScope() {
+		return this.scope;
+	}
+
+	public Collection<ClassNode> getClassNodes() {
+		return this.classes.values();
+	}
+
+	public Enigma getEnigma() {
+		return this.enigma;
+	}
+
+	public EnigmaProject getProject() {
+		return this.project;
+	}
+
+	public JarIndex getJarIndex() {
+		return this.project.getJarIndex();
+	}
+
+	public ProjectClassProvider getProjectClassProvider() {
+		return this.projectClassProvider;
+	}
+
+	@Override
+	public Collection<String> getClassNames() {
+		return this.classes.keySet();
+	}
+
+	@Override
+	public ClassNode get(String name) {
+		return this.classes.get(name);
+	}
+}
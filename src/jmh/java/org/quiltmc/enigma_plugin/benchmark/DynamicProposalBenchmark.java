@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.proposal.NameProposer;
+import org.quiltmc.enigma_plugin.proposal.NameProposerService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks the dynamic proposal of names after a single entry is renamed, and after the mappings are reloaded,
+ * for each name proposer and for the whole chain of proposers.
+ * The whole chain runs through the name proposal services, with and without the dynamic proposal graph.
+ *
+ * <p>The renamed entries are taken from the class with the most members, so that the proposers have some work to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicProposalBenchmark {
+	private static final String ALL_PROPOSERS = "all";
+	private static final String ALL_PROPOSERS_WITHOUT_GRAPH = "all_without_graph";
+
+	/**
+	 * The simple class name of the benchmarked proposer, or {@value #ALL_PROPOSERS} for every service,
+	 * or {@value #ALL_PROPOSERS_WITHOUT_GRAPH} for every service running all of its proposers after each rename.
+	 */
+	@Param({
+		ALL_PROPOSERS, ALL_PROPOSERS_WITHOUT_GRAPH, "GetterSetterNameProposer", "DelegateParametersNameProposer", "ConstructorParamsNameProposer",
+		"SimpleSubtypeFieldNameProposer", "LambdaParametersProposer", "ConflictFixProposer"
+	})
+	public String proposer;
+
+	@Param({"class", "field", "parameter", "reload"})
+	public String event;
+
+	@Param("1")
+	public int scale;
+
+	private EntryRemapper remapper;
+	private List<NameProposerService> services;
+	private List<NameProposer> proposers;
+	private Entry<?> obfEntry;
+	private EntryMapping oldMapping;
+	private EntryMapping newMapping;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		boolean allProposers = this.proposer.equals(ALL_PROPOSERS) || this.proposer.equals(ALL_PROPOSERS_WITHOUT_GRAPH);
+		boolean graphDisabled = this.proposer.equals(ALL_PROPOSERS_WITHOUT_GRAPH);
+
+		BenchmarkJar jar = BenchmarkJar.open(this.scale, Map.of(Arguments.DISABLE_DYNAMIC_PROPOSAL_GRAPH, Boolean.toString(graphDisabled)));
+		this.remapper = jar.getProject().getRemapper();
+
+		this.services = new ArrayList<>();
+		for (NameProposalService service : jar.getEnigma().getServices().get(NameProposalService.TYPE)) {
+			if (service instanceof NameProposerService proposerService) {
+				this.services.add(proposerService);
+			}
+		}
+
+		if (!allProposers) {
+			this.proposers = this.services.stream()
+					.flatMap(service -> service.getNameProposers().stream())
+					.filter(p -> p.getClass().getSimpleName().equals(this.proposer))
+					.toList();
+
+			if (this.proposers.isEmpty()) {
+				throw new IllegalStateException("Proposer " + this.proposer + " isn't enabled by the benchmark profile");
+			}
+		}
+
+		this.obfEntry = this.findEntry(jar.getJarIndex().getIndex(EntryIndex.class));
+		if (this.obfEntry != null) {
+			this.oldMapping = this.remapper.getMapping(this.obfEntry);
+			this.newMapping = new EntryMapping("renamed" + this.obfEntry.getName(), null, TokenType.DEOBFUSCATED, null);
+		}
+	}
+
+	private Entry<?> findEntry(EntryIndex index) {
+		if (this.event.equals("reload")) {
+			return null;
+		}
+
+		Map<ClassEntry, List<FieldEntry>> fields = index.getFields().stream().collect(Collectors.groupingBy(FieldEntry::getParent));
+		Map<ClassEntry, List<MethodEntry>> methods = index.getMethods().stream()
+				.filter(method -> !method.getDesc().getArgumentDescs().isEmpty())
+				.collect(Collectors.groupingBy(MethodEntry::getParent));
+
+		Function<ClassEntry, Integer> memberCount = c -> fields.getOrDefault(c, List.of()).size() + methods.getOrDefault(c, List.of()).size();
+		ClassEntry owner = index.getClasses().stream()
+				.filter(c -> fields.containsKey(c) && methods.containsKey(c))
+				.max(Comparator.comparing(memberCount).thenComparing(ClassEntry::getFullName))
+				.orElseThrow();
+
+		return switch (this.event) {
+			case "class" -> owner;
+			case "field" -> fields.get(owner).stream().min(Comparator.comparing(FieldEntry::getFullName)).orElseThrow();
+			case "parameter" -> {
+				MethodEntry method = methods.get(owner).stream().min(Comparator.comparing(MethodEntry::getFullName)).orElseThrow();
+				yield new LocalVariableEntry(method, index.getMethodAccess(method).isStatic() ? 0 : 1);
+			}
+			default -> throw new IllegalArgumentException("Unknown event " + this.event);
+		};
+	}
+
+	@Benchmark
+	public Map<Entry<?>, EntryMapping> proposeDynamicNames() {
+		Map<Entry<?>, EntryMapping> mappings = new HashMap<>();
+
+		if (this.proposers == null) {
+			for (NameProposerService service : this.services) {
+				mappings.putAll(service.getDynamicProposedNames(this.remapper, this.obfEntry, this.oldMapping, this.newMapping));
+			}
+
+			return mappings;
+		}
+
+		for (NameProposer proposer : this.proposers) {
+			proposer.proposeDynamicNames(this.remapper, this.obfEntry, this.oldMapping, this.newMapping, mappings);
+		}
+
+		return mappings;
+	}
+}
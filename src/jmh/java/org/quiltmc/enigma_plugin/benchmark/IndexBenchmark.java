@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.benchmark;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quiltmc.enigma_plugin.index.CodecIndex;
+import org.quiltmc.enigma_plugin.index.ConstructorParametersIndex;
+import org.quiltmc.enigma_plugin.index.DelegateParametersIndex;
+import org.quiltmc.enigma_plugin.index.GetterSetterIndex;
+import org.quiltmc.enigma_plugin.index.Index;
+import org.quiltmc.enigma_plugin.index.JarIndexer;
+import org.quiltmc.enigma_plugin.index.LambdaParametersIndex;
+import org.quiltmc.enigma_plugin.index.LoggerIndex;
+import org.quiltmc.enigma_plugin.index.MethodAnalysisCache;
+import org.quiltmc.enigma_plugin.index.RecordIndex;
+import org.quiltmc.enigma_plugin.index.constant_fields.ConstantFieldIndex;
+import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleSubtypeSingleIndex;
+import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleTypeSingleIndex;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each index on its own, visiting every class of the benchmark jar and ending the indexing.
+ * The classes are read beforehand, so only the work of the index is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+	@Param({
+		"RecordIndex", "ConstantFieldIndex", "CodecIndex", "ConstructorParametersIndex", "GetterSetterIndex",
+		"SimpleTypeSingleIndex", "SimpleSubtypeSingleIndex", "DelegateParametersIndex", "LoggerIndex", "LambdaParametersIndex"
+	})
+	public String index;
+
+	@Param("1")
+	public int scale;
+
+	private BenchmarkJar jar;
+	private Index benchmarkedIndex;
+	private MethodAnalysisCache analysisCache;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.jar = BenchmarkJar.open(this.scale);
+
+		var indexer = new JarIndexer().withContext(BenchmarkJar.createContext(Map.of()));
+		this.benchmarkedIndex = indexer.getIndex(getIndexClass(this.index));
+		this.analysisCache = new MethodAnalysisCache();
+		this.benchmarkedIndex.setAnalysisCache(this.analysisCache);
+	}
+
+	private static Class<? extends Index> getIndexClass(String name) {
+		return switch (name) {
+			case "RecordIndex" -> RecordIndex.class;
+			case "ConstantFieldIndex" -> ConstantFieldIndex.class;
+			case "CodecIndex" -> CodecIndex.class;
+			case "ConstructorParametersIndex" -> ConstructorParametersIndex.class;
+			case "GetterSetterIndex" -> GetterSetterIndex.class;
+			case "SimpleTypeSingleIndex" -> SimpleTypeSingleIndex.class;
+			case "SimpleSubtypeSingleIndex" -> SimpleSubtypeSingleIndex.class;
+			case "DelegateParametersIndex" -> DelegateParametersIndex.class;
+			case "LoggerIndex" -> LoggerIndex.class;
+			case "LambdaParametersIndex" -> LambdaParametersIndex.class;
+			default -> throw new IllegalArgumentException("Unknown index " + name);
+		};
+	}
+
+	@Benchmark
+	public Index index() {
+		Index index = this.benchmarkedIndex;
+		index.reset();
+		index.setIndexingContext(this.jar.getScope(), this.jar.getJarIndex());
+		index.setEntryPool(new EntryPool());
+
+		for (ClassNode node : this.jar.getClassNodes()) {
+			index.visitClassNode(this.jar, node);
+			this.analysisCache.clear();
+		}
+
+		index.onIndexingEnded();
+		return index;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.JarIndexer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the whole {@link JarIndexer#acceptJar jar indexing}, with every index enabled by the default arguments.
+ * With {@link #cached}, the index cache is written before the benchmark, so that every indexing loads it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JarIndexerBenchmark {
+	@Param("1")
+	public int scale;
+
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	@Param({"false", "true"})
+	public boolean cached;
+
+	private BenchmarkJar jar;
+	private JarIndexer indexer;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.jar = BenchmarkJar.open(this.scale);
+
+		Map<String, String> arguments = new HashMap<>();
+		arguments.put(Arguments.PARALLEL_INDEXING, Boolean.toString(this.parallel));
+		if (this.cached) {
+			Path cachePath = Files.createTempFile("index", ".cache");
+			cachePath.toFile().deleteOnExit();
+			arguments.put(Arguments.INDEX_CACHE_PATH, cachePath.toString());
+		}
+
+		this.indexer = new JarIndexer().withContext(BenchmarkJar.createContext(arguments));
+
+		if (this.cached) {
+			this.acceptJar();
+		}
+	}
+
+	@Benchmark
+	public JarIndexer acceptJar() {
+		this.indexer.acceptJar(this.jar.getScope(), this.jar.getProjectClassProvider(), this.jar.getJarIndex());
+		return this.indexer;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.benchmark;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates scaled-up jars, made of several copies of the classes of a jar, each in its own package.
+ * The copies only reference the classes of their own copy, so each one is indexed like the original jar.
+ */
+public final class SyntheticJarGenerator {
+	private static final String COPY_PACKAGE_PREFIX = "copy";
+
+	private SyntheticJarGenerator() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 3) {
+			System.err.println("Usage: SyntheticJarGenerator <input jar> <output jar> <copies>");
+			System.exit(1);
+		}
+
+		generate(Path.of(args[0]), Path.of(args[1]), Integer.parseInt(args[2]));
+	}
+
+	/**
+	 * Generates a jar containing {@code copies} copies of the classes of the input jar.
+	 * The first copy keeps the original class names, the other ones are moved to a {@code copyN/} package.
+	 *
+	 * @param input the jar to copy the classes from
+	 * @param output the path of the generated jar
+	 * @param copies the number of copies of each class
+	 */
+	public static void generate(Path input, Path output, int copies) throws IOException {
+		Map<String, byte[]> classes = readClasses(input);
+
+		Path parent = output.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+
+		try (var out = new JarOutputStream(Files.newOutputStream(output))) {
+			for (int copy = 0; copy < copies; copy++) {
+				String prefix = copy == 0 ? "" : COPY_PACKAGE_PREFIX + copy + "/";
+				var remapper = new Remapper() {
+					@Override
+					public String map(String internalName) {
+						return classes.containsKey(internalName) ? prefix + internalName : internalName;
+					}
+				};
+
+				for (var entry : classes.entrySet()) {
+					var writer = new ClassWriter(0);
+					new ClassReader(entry.getValue()).accept(new ClassRemapper(writer, remapper), 0);
+
+					out.putNextEntry(new JarEntry(prefix + entry.getKey() + ".class"));
+					out.write(writer.toByteArray());
+					out.closeEntry();
+				}
+			}
+		}
+	}
+
+	private static Map<String, byte[]> readClasses(Path jar) throws IOException {
+		Map<String, byte[]> classes = new LinkedHashMap<>();
+
+		try (var in = new JarInputStream(Files.newInputStream(jar))) {
+			JarEntry entry;
+			while ((entry = in.getNextJarEntry()) != null) {
+				String name = entry.getName();
+				if (name.endsWith(".class") && !name.endsWith("module-info.class")) {
+					classes.put(name.substring(0, name.length() - ".class".length()), in.readAllBytes());
+				}
+			}
+		}
+
+		return classes;
+	}
+}
@@ -39,6 +39,13 @@ public class Arguments {
 	public static final String SIMPLE_TYPE_VERIFICATION_ERROR_LEVEL = "simple_type_verification_error_level";
 	public static final String MERGED_MAPPING_PATH = "merged_mapping_path";
 	public static final String PACKAGE_NAME_OVERRIDES_PATH = "package_name_overrides_path";
+	public static final String PARALLEL_INDEXING = "parallel_indexing";
+	public static final String PARALLEL_PROPOSAL = "parallel_proposal";
+	public static final String DISABLE_DYNAMIC_PROPOSAL_GRAPH = "disable_dynamic_proposal_graph";
+	public static final String INDEX_CACHE_PATH = "index_cache_path";
+	public static final String COMPACT_INDEXES = "compact_indexes";
+	public static final String ANALYSIS_MAX_INSTRUCTIONS = "analysis_max_instructions";
+	public static final String ANALYSIS_TIMEOUT = "analysis_timeout";
 
 	public static <T extends EnigmaService> boolean getBoolean(EnigmaServiceContext<T> context, String arg) {
 		return getBoolean(context, arg, false);
@@ -47,4 +54,8 @@ public class Arguments {
 	public static <T extends EnigmaService> boolean getBoolean(EnigmaServiceContext<T> context, String arg, boolean disabledByDefault) {
 		return context.getSingleArgument(arg).map(Boolean::parseBoolean).orElse(disabledByDefault);
 	}
+
+	public static <T extends EnigmaService> int getInt(EnigmaServiceContext<T> context, String arg, int defaultValue) {
+		return context.getSingleArgument(arg).map(Integer::parseInt).orElse(defaultValue);
+	}
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.quiltmc.enigma_plugin.index.cache.IndexCache;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An index the results of which can be stored in an {@link IndexCache index cache}.
+ * Implemented by {@link Index indexes}, which provide {@link #getParseDepth()} and {@link #reset()}.
+ */
+public interface CacheableIndex {
+	/**
+	 * {@return the parts of the classes this index looks at}
+	 * Only these parts are hashed to find the changed classes, so changes to the other parts of a class don't invalidate the cached results of this index.
+	 */
+	ParseDepth getParseDepth();
+
+	/**
+	 * Clears the results of this index, which happens when a cache fails to load.
+	 */
+	void reset();
+
+	/**
+	 * Writes the configuration of this index affecting its results, so that cached results
+	 * are only loaded with the same configuration.
+	 *
+	 * @param out the output of the cache key
+	 */
+	default void writeCacheKey(DataOutput out) throws IOException {
+	}
+
+	/**
+	 * Writes the results of visiting the classes to the index cache, before {@link Index#onIndexingEnded()} is called.
+	 *
+	 * @param out the cache writer
+	 */
+	void writeCache(IndexCacheWriter out) throws IOException;
+
+	/**
+	 * Reads the results written by {@link #writeCache(IndexCacheWriter)}, instead of visiting the classes.
+	 *
+	 * @param in the cache reader
+	 */
+	void readCache(IndexCacheReader in) throws IOException;
+}
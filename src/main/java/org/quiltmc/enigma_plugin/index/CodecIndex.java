@@ -26,30 +26,31 @@ import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.InvokeDynamicInsnNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
-import org.objectweb.asm.tree.analysis.Analyzer;
 import org.objectweb.asm.tree.analysis.AnalyzerException;
 import org.objectweb.asm.tree.analysis.Frame;
-import org.objectweb.asm.tree.analysis.SourceInterpreter;
 import org.objectweb.asm.tree.analysis.SourceValue;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.JarIndexerService;
-import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
 import org.quiltmc.enigma_plugin.util.CasingUtil;
 import org.tinylog.Logger;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class CodecIndex extends Index {
+public class CodecIndex extends Index implements IncrementalIndex {
 	private static final List<MethodInfo> CODEC_FIELD_METHODS = List.of(
 			new MethodInfo("fieldOf", "(Ljava/lang/String;)Lcom/mojang/serialization/MapCodec;")
 	);
@@ -57,7 +58,7 @@ public class CodecIndex extends Index {
 			new MethodInfo("optionalFieldOf", "(Ljava/lang/String;)Lcom/mojang/serialization/MapCodec;"),
 			new MethodInfo("optionalFieldOf", "(Ljava/lang/String;Ljava/lang/Object;)Lcom/mojang/serialization/MapCodec;")
 	);
-	private static final List<String> BUILTIN_CODEC_CLASSES = List.of(
+	private static final Set<String> BUILTIN_CODEC_CLASSES = Set.of(
 			"com/mojang/serialization/codecs/BaseMapCodec",
 			"com/mojang/serialization/codecs/CompoundListCodec",
 			"com/mojang/serialization/codecs/EitherCodec",
@@ -74,15 +75,16 @@ public class CodecIndex extends Index {
 	);
 	private static final MethodInfo FOR_GETTER_METHOD = new MethodInfo("forGetter", "(Ljava/util/function/Function;)Lcom/mojang/serialization/codecs/RecordCodecBuilder;");
 	private static final String FOR_GETTER_METHOD_OWNER = "com/mojang/serialization/MapCodec";
-	private final Analyzer<SourceValue> analyzer;
 	private final Set<String> customCodecClasses = new HashSet<>();
 
 	private final Map<FieldEntry, String> fieldNames = new HashMap<>();
 	private final Map<MethodEntry, String> methodNames = new HashMap<>();
 
+	private int analyzedMethods;
+	private int skippedMethods;
+
 	public CodecIndex() {
 		super(Arguments.DISABLE_CODECS);
-		this.analyzer = new Analyzer<>(new SourceInterpreter());
 	}
 
 	@Override
@@ -102,8 +104,18 @@ public class CodecIndex extends Index {
 	}
 
 	private boolean isCodecFieldMethod(MethodInsnNode mInsn) {
-		return this.isCodecClass(mInsn.owner)
-				&& (CODEC_FIELD_METHODS.stream().anyMatch(m -> m.matches(mInsn)) || CODEC_OPTIONAL_FIELD_METHODS.stream().anyMatch(m -> m.matches(mInsn)));
+		return (CODEC_FIELD_METHODS.stream().anyMatch(m -> m.matches(mInsn)) || CODEC_OPTIONAL_FIELD_METHODS.stream().anyMatch(m -> m.matches(mInsn)))
+				&& this.isCodecClass(mInsn.owner);
+	}
+
+	private boolean hasCodecFieldMethodCall(MethodNode node) {
+		for (AbstractInsnNode insn = node.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+			if (insn instanceof MethodInsnNode methodInsn && this.isCodecFieldMethod(methodInsn)) {
+				return true;
+			}
+		}
+
+		return false;
 	}
 
 	@Override
@@ -111,6 +123,8 @@ public class CodecIndex extends Index {
 		for (MethodNode method : node.methods) {
 			try {
 				this.visitMethodNode(node, method);
+			} catch (AnalyzerException e) {
+				// Reported by the analysis cache, skip the method
 			} catch (Exception e) {
 				Logger.error(e, "Error visiting method " + method.name + method.desc + " in class " + node.name);
 				throw new RuntimeException(e);
@@ -119,98 +133,117 @@ public class CodecIndex extends Index {
 	}
 
 	private void visitMethodNode(ClassNode parent, MethodNode node) throws AnalyzerException {
-		Frame<SourceValue>[] frames = this.analyzer.analyze(parent.name, node);
+		// Only methods creating a field codec can name something, don't analyze the others
+		if (!this.hasCodecFieldMethodCall(node)) {
+			this.skippedMethods++;
+			return;
+		}
+
+		this.analyzedMethods++;
+		Frame<SourceValue>[] frames = this.getAnalysisCache().getFrames(parent.name, node, MethodAnalysisCache.SOURCE);
 		InsnList instructions = node.instructions;
 
-		for (int i = 1; i < instructions.size() && i < frames.length - 1; i++) {
+		// Every field codec is followed in the same pass over the method, until its forGetter call or until it leaves the stack
+		List<FieldCodecTracker> trackers = new ArrayList<>();
+		List<FieldCodecTracker> activeTrackers = new ArrayList<>();
+		Map<AbstractInsnNode, Integer> stackIndexes = new IdentityHashMap<>();
+
+		for (int i = 1; i < instructions.size(); i++) {
 			AbstractInsnNode insn = instructions.get(i);
-			if (insn instanceof MethodInsnNode methodInsn && this.isCodecFieldMethod(methodInsn)) {
-				// Logger.info(methodInsn.getOpcode() + " " + methodInsn.owner + "." + methodInsn.name + " " + methodInsn.desc + " in " + parent.name + "." + node.name + " " + node.desc + " (" + i + ")");
+			Frame<SourceValue> frame = frames[i];
+
+			if (!activeTrackers.isEmpty() && frame != null) {
+				// Index the stack once for all the trackers, keeping the topmost slot of each instruction
+				stackIndexes.clear();
+				for (int k = 0; k < frame.getStackSize(); k++) {
+					for (AbstractInsnNode source : frame.getStack(k).insns) {
+						stackIndexes.put(source, k);
+					}
+				}
+
+				activeTrackers.removeIf(tracker -> {
+					// Make sure the field codec is still in the stack
+					Integer codecInsnIndex = stackIndexes.get(tracker.codecInsn);
+					return codecInsnIndex == null || !this.trackFieldCodec(tracker, insn, frame, codecInsnIndex);
+				});
+			}
+
+			if (i < frames.length - 1 && insn instanceof MethodInsnNode methodInsn && this.isCodecFieldMethod(methodInsn)) {
 				// Find the field name in the stack
 				String name = AsmUtil.shallowSearchStringCstInStack(instructions, insn, frames);
 
-				if (name == null) {
-					continue;
+				if (name != null) {
+					var tracker = new FieldCodecTracker(name, methodInsn);
+					trackers.add(tracker);
+					activeTrackers.add(tracker);
 				}
+			}
+		}
 
-				MethodInsnNode codecInsn = methodInsn;
-				// Find a forGetter call
-				for (int j = i + 1; j < instructions.size(); j++) {
-					Frame<SourceValue> frame = frames[j];
-					if (frame == null) {
-						continue;
-					}
+		// Name the getters in the order of the field codecs, so that later ones still override earlier ones
+		for (FieldCodecTracker tracker : trackers) {
+			if (tracker.getterInsn != null) {
+				this.visitGetterInvokeDynamicInsn(parent, tracker.getterInsn, tracker.name);
+			}
+		}
+	}
 
-					// Make sure the field codec is still in the stack
-					int codecInsnIndex = -1;
-					for (int k = 0; k < frame.getStackSize(); k++) {
-						SourceValue value = frame.getStack(k);
-						for (AbstractInsnNode insn2 : value.insns) {
-							if (insn2 == codecInsn) {
-								codecInsnIndex = k;
-								break;
-							}
-						}
-					}
+	/**
+	 * Follows a field codec through an instruction.
+	 *
+	 * @param codecInsnIndex the topmost stack index of the value holding the field codec before the instruction
+	 * @return whether the field codec has to be followed further
+	 */
+	private boolean trackFieldCodec(FieldCodecTracker tracker, AbstractInsnNode insn, Frame<SourceValue> frame, int codecInsnIndex) {
+		if (!(insn instanceof MethodInsnNode methodInsn)) {
+			return true;
+		}
 
-					if (codecInsnIndex == -1) {
-						break;
-					}
+		if (methodInsn.owner.equals(FOR_GETTER_METHOD_OWNER) && FOR_GETTER_METHOD.matches(methodInsn)) {
+			if (!(insn.getPrevious() instanceof InvokeDynamicInsnNode getterInvokeInsn)) {
+				return true;
+			}
 
-					AbstractInsnNode insn2 = instructions.get(j);
-					if (insn2 instanceof MethodInsnNode methodInsn2) {
-						if (methodInsn2.owner.equals(FOR_GETTER_METHOD_OWNER) && FOR_GETTER_METHOD.matches(methodInsn2)) {
-							// Logger.info("Found forGetter call " + methodInsn2.getOpcode() + " (" + j + ")");
-							AbstractInsnNode getterInsn = instructions.get(j - 1);
-							if (!(getterInsn instanceof InvokeDynamicInsnNode getterInvokeInsn)) {
-								continue;
-							}
-
-							// Logger.info("Found getter call " + getterInvokeInsn.bsm + " (" + (j - 1) + ")");
-							this.visitGetterInvokeDynamicInsn(parent, getterInvokeInsn, name);
-							break;
-						} else {
-							// Check the return type of the method is a codec
-							Type type = Type.getMethodType(methodInsn2.desc);
-							Type ret = type.getReturnType();
-							if (ret.getSort() != Type.OBJECT || !this.isCodecClass(ret.getInternalName())) {
-								continue;
-							}
-
-							// Update the insn returning the codec if needed
-							// For example, `fieldOf("foo").orElse(0)` would remove the `fieldOf` instruction from the stack, so now we have to track the `orElse` instruction
-							boolean hasThis = methodInsn2.getOpcode() != INVOKESTATIC;
-							int argsSize = type.getArgumentsAndReturnSizes() >> 2;
-							// Skip the first argument (automatically-added 'this' pointer) if the method doesn't have one (is static)
-							int offset = (hasThis ? 0 : 1) + frame.getStackSize() - argsSize;
-
-							// The first argument 'this' may be the codec
-							if (hasThis && codecInsnIndex == offset) {
-								// Logger.info("Found field codec call " + methodInsn2.getOpcode() + " (" + j + ")");
-								codecInsn = methodInsn2;
-								continue;
-							}
-
-							// If the method is static, check the args passed to it to check if the codec was one of them
-							Type[] args = type.getArgumentTypes();
-							for (int k = 0; k < args.length; k++) {
-								if (args[k].getSort() != Type.OBJECT || !this.isCodecClass(args[k].getInternalName())) {
-									continue;
-								}
-
-								// Offset by one slot if there's a 'this' pointer
-								if (codecInsnIndex == offset + k + (hasThis ? 1 : 0)) {
-									// The codec was passed to a static method, track the result of that method
-									// Logger.info("Found field codec consuming call " + methodInsn2.getOpcode() + " (" + j + ")");
-									codecInsn = methodInsn2;
-									break;
-								}
-							}
-						}
-					}
-				}
+			tracker.getterInsn = getterInvokeInsn;
+			return false;
+		}
+
+		// Check the return type of the method is a codec
+		Type type = Type.getMethodType(methodInsn.desc);
+		Type ret = type.getReturnType();
+		if (ret.getSort() != Type.OBJECT || !this.isCodecClass(ret.getInternalName())) {
+			return true;
+		}
+
+		// Update the insn returning the codec if needed
+		// For example, `fieldOf("foo").orElse(0)` would remove the `fieldOf` instruction from the stack, so now we have to track the `orElse` instruction
+		boolean hasThis = methodInsn.getOpcode() != INVOKESTATIC;
+		int argsSize = type.getArgumentsAndReturnSizes() >> 2;
+		// Skip the first argument (automatically-added 'this' pointer) if the method doesn't have one (is static)
+		int offset = (hasThis ? 0 : 1) + frame.getStackSize() - argsSize;
+
+		// The first argument 'this' may be the codec
+		if (hasThis && codecInsnIndex == offset) {
+			tracker.codecInsn = methodInsn;
+			return true;
+		}
+
+		// If the method is static, check the args passed to it to check if the codec was one of them
+		Type[] args = type.getArgumentTypes();
+		for (int k = 0; k < args.length; k++) {
+			if (args[k].getSort() != Type.OBJECT || !this.isCodecClass(args[k].getInternalName())) {
+				continue;
+			}
+
+			// Offset by one slot if there's a 'this' pointer
+			if (codecInsnIndex == offset + k + (hasThis ? 1 : 0)) {
+				// The codec was passed to a static method, track the result of that method
+				tracker.codecInsn = methodInsn;
+				break;
 			}
 		}
+
+		return true;
 	}
 
 	private void visitGetterInvokeDynamicInsn(ClassNode parent, InvokeDynamicInsnNode insn, String name) {
@@ -225,20 +258,20 @@ public class CodecIndex extends Index {
 			return;
 		}
 
-		var parentEntry = new ClassEntry(parent.name);
+		var parentEntry = this.getEntryPool().classEntry(parent.name);
 		String camelCaseName = CasingUtil.toCamelCase(name);
 		String getterName = "get" + camelCaseName.substring(0, 1).toUpperCase() + camelCaseName.substring(1);
 
 		if (getterHandle.getTag() == H_INVOKEVIRTUAL) {
 			// Name the getter
-			var entry = new MethodEntry(parentEntry, getterHandle.getName(), new MethodDescriptor(getterHandle.getDesc()));
+			var entry = this.getEntryPool().methodEntry(parentEntry, getterHandle.getName(), getterHandle.getDesc());
 			this.methodNames.put(entry, getterName);
 
 			// Try to find and name the field from the getter
 			AsmUtil.getMethod(parent, getterHandle.getName(), getterHandle.getDesc())
 					.flatMap(m -> AsmUtil.getFieldFromGetter(parent, m))
 					.ifPresent(f -> {
-						var fieldEntry = new FieldEntry(parentEntry, f.name, new TypeDescriptor(f.desc));
+						var fieldEntry = this.getEntryPool().fieldEntry(parentEntry, f.name, f.desc);
 						this.fieldNames.put(fieldEntry, camelCaseName);
 					});
 		} else if (getterHandle.getTag() == H_INVOKESTATIC) {
@@ -263,24 +296,95 @@ public class CodecIndex extends Index {
 
 			if (fieldInsn != null) {
 				// Name the field directly
-				var entry = new FieldEntry(parentEntry, fieldInsn.name, new TypeDescriptor(fieldInsn.desc));
+				var entry = this.getEntryPool().fieldEntry(parentEntry, fieldInsn.name, fieldInsn.desc);
 				this.fieldNames.put(entry, camelCaseName);
 			} else if (methodInsn != null) {
 				// Name the getter
-				var entry = new MethodEntry(parentEntry, methodInsn.name, new MethodDescriptor(methodInsn.desc));
+				var entry = this.getEntryPool().methodEntry(parentEntry, methodInsn.name, methodInsn.desc);
 				this.methodNames.put(entry, getterName);
 
 				// Try to find and name the field from the getter
 				AsmUtil.getMethod(parent, methodInsn.name, methodInsn.desc)
 						.flatMap(m -> AsmUtil.getFieldFromGetter(parent, m))
 						.ifPresent(f -> {
-							var fieldEntry = new FieldEntry(parentEntry, f.name, new TypeDescriptor(f.desc));
+							var fieldEntry = this.getEntryPool().fieldEntry(parentEntry, f.name, f.desc);
 							this.fieldNames.put(fieldEntry, camelCaseName);
 						});
 			}
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		var shard = new CodecIndex();
+		shard.addCustomCodecs(List.copyOf(this.customCodecClasses));
+		return shard;
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		var other = (CodecIndex) shard;
+		this.fieldNames.putAll(other.fieldNames);
+		this.methodNames.putAll(other.methodNames);
+		this.analyzedMethods += other.analyzedMethods;
+		this.skippedMethods += other.skippedMethods;
+	}
+
+	@Override
+	public void onIndexingEnded() {
+		Logger.debug("Analyzed {} methods for codec fields, skipped {} methods without field codecs", this.analyzedMethods, this.skippedMethods);
+	}
+
+	@Override
+	public void reset() {
+		this.fieldNames.clear();
+		this.methodNames.clear();
+		this.analyzedMethods = 0;
+		this.skippedMethods = 0;
+	}
+
+	@Override
+	public void writeCacheKey(DataOutput out) throws IOException {
+		List<String> customCodecs = this.customCodecClasses.stream().sorted().toList();
+		out.writeInt(customCodecs.size());
+
+		for (String codec : customCodecs) {
+			out.writeUTF(codec);
+		}
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		this.fieldNames.keySet().removeIf(field -> classes.contains(field.getContainingClass().getFullName()));
+		this.methodNames.keySet().removeIf(method -> classes.contains(method.getContainingClass().getFullName()));
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.fieldNames, IndexCacheWriter::writeField, IndexCacheWriter::writeString);
+		out.writeMap(this.methodNames, IndexCacheWriter::writeMethod, IndexCacheWriter::writeString);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.fieldNames, IndexCacheReader::readField, IndexCacheReader::readString);
+		in.readMap(this.methodNames, IndexCacheReader::readMethod, IndexCacheReader::readString);
+	}
+
+	/**
+	 * {@return the number of methods analyzed during the last indexing}
+	 */
+	public int getAnalyzedMethodCount() {
+		return this.analyzedMethods;
+	}
+
+	/**
+	 * {@return the number of methods skipped during the last indexing, as they don't create any field codec}
+	 */
+	public int getSkippedMethodCount() {
+		return this.skippedMethods;
+	}
+
 	public boolean hasField(FieldEntry field) {
 		return this.fieldNames.containsKey(field);
 	}
@@ -325,6 +429,21 @@ public class CodecIndex extends Index {
 		return this.customCodecClasses;
 	}
 
+	/**
+	 * A field codec being followed through the instructions of a method.
+	 */
+	private static final class FieldCodecTracker {
+		private final String name;
+		// The instruction returning the field codec, or the codec wrapping it
+		private AbstractInsnNode codecInsn;
+		private InvokeDynamicInsnNode getterInsn;
+
+		private FieldCodecTracker(String name, AbstractInsnNode codecInsn) {
+			this.name = name;
+			this.codecInsn = codecInsn;
+		}
+	}
+
 	record MethodInfo(String name, String desc) {
 		public boolean matches(MethodInsnNode insn) {
 			return insn.name.equals(this.name) && insn.desc.equals(this.desc);
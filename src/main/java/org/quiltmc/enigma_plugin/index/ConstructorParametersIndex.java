@@ -21,23 +21,24 @@ import org.objectweb.asm.tree.FieldInsnNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.VarInsnNode;
-import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.objectweb.asm.Opcodes;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
+import org.quiltmc.enigma_plugin.util.CompactEntryMap;
 import org.quiltmc.enigma_plugin.util.Descriptors;
+import org.quiltmc.enigma_plugin.util.EntryIdTable;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class ConstructorParametersIndex extends Index {
-	private final Map<LocalVariableEntry, FieldEntry> entries = new HashMap<>();
+public class ConstructorParametersIndex extends Index implements IncrementalIndex {
+	private Map<LocalVariableEntry, FieldEntry> entries = new HashMap<>();
 	private final Map<FieldEntry, Set<LocalVariableEntry>> entriesByField = new HashMap<>();
 
 	public ConstructorParametersIndex() {
@@ -54,8 +55,8 @@ public class ConstructorParametersIndex extends Index {
 	}
 
 	private void visitConstructor(ClassNode classNode, MethodNode constructorNode) {
-		var classEntry = new ClassEntry(classNode.name);
-		var methodEntry = new MethodEntry(classEntry, constructorNode.name, new MethodDescriptor(constructorNode.desc));
+		var classEntry = this.getEntryPool().classEntry(classNode.name);
+		var methodEntry = this.getEntryPool().methodEntry(classEntry, constructorNode.name, constructorNode.desc);
 
 		var parameters = Descriptors.getParameters(constructorNode);
 		if (parameters.isEmpty()) return;
@@ -80,8 +81,8 @@ public class ConstructorParametersIndex extends Index {
 						continue; // This load opcode does not correspond to a parameter.
 					}
 
-					var param = new LocalVariableEntry(methodEntry, loadInst.var);
-					var field = new FieldEntry(classEntry, fieldInst.name, new TypeDescriptor(fieldInst.desc));
+					var param = this.getEntryPool().localEntry(methodEntry, loadInst.var);
+					var field = this.getEntryPool().fieldEntry(classEntry, fieldInst.name, fieldInst.desc);
 					this.entries.put(param, field);
 					this.entriesByField.computeIfAbsent(field, f -> new HashSet<>()).add(param);
 				}
@@ -89,6 +90,46 @@ public class ConstructorParametersIndex extends Index {
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		return new ConstructorParametersIndex();
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		var other = (ConstructorParametersIndex) shard;
+		this.entries.putAll(other.entries);
+		other.entriesByField.forEach((field, params) -> this.entriesByField.computeIfAbsent(field, f -> new HashSet<>()).addAll(params));
+	}
+
+	@Override
+	public void compact(EntryIdTable ids) {
+		this.entries = new CompactEntryMap<>(ids, this.entries);
+	}
+
+	@Override
+	public void reset() {
+		this.entries = new HashMap<>();
+		this.entriesByField.clear();
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		this.entries.keySet().removeIf(param -> classes.contains(param.getContainingClass().getFullName()));
+		this.entriesByField.keySet().removeIf(field -> classes.contains(field.getContainingClass().getFullName()));
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.entries, IndexCacheWriter::writeLocal, IndexCacheWriter::writeField);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.entries, IndexCacheReader::readLocal, IndexCacheReader::readField);
+		this.entries.forEach((param, field) -> this.entriesByField.computeIfAbsent(field, f -> new HashSet<>()).add(param));
+	}
+
 	/**
 	 * Gets the linked field of the given parameter.
 	 *
@@ -99,6 +140,10 @@ public class ConstructorParametersIndex extends Index {
 		return this.entries.get(entry);
 	}
 
+	public Set<FieldEntry> getLinkedFields() {
+		return this.entriesByField.keySet();
+	}
+
 	public Set<LocalVariableEntry> getParameters() {
 		return this.entries.keySet();
 	}
@@ -24,29 +24,40 @@ import org.objectweb.asm.tree.InvokeDynamicInsnNode;
 import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
-import org.objectweb.asm.tree.analysis.Analyzer;
 import org.objectweb.asm.tree.analysis.AnalyzerException;
 import org.objectweb.asm.tree.analysis.Interpreter;
 import org.objectweb.asm.tree.analysis.Value;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.IndexEntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
+import org.quiltmc.enigma_plugin.util.CompactEntryMap;
+import org.quiltmc.enigma_plugin.util.EntryIdTable;
 import org.tinylog.Logger;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class DelegateParametersIndex extends Index {
-	private final Map<LocalVariableEntry, LocalVariableEntry> linkedParameters = new HashMap<>();
+public class DelegateParametersIndex extends Index implements IncrementalIndex {
+	private static final MethodAnalysisCache.Kind<LocalVariableValue> LOCAL_VARIABLES = new MethodAnalysisCache.Kind<>(LocalVariableInterpreter::new);
+	private static final String[] NO_PARAMETER_NAMES = new String[0];
+
+	private Map<LocalVariableEntry, LocalVariableEntry> linkedParameters = new HashMap<>();
 	private final Map<LocalVariableEntry, Set<LocalVariableEntry>> parameterLinks = new HashMap<>();
 	private final Map<LocalVariableEntry, String> parameterNames = new HashMap<>();
 	private final Set<LocalVariableEntry> invalidParameters = new HashSet<>(); // Parameters used more than once
@@ -54,9 +65,22 @@ public class DelegateParametersIndex extends Index {
 	private Set<String> classes;
 	private JarIndex jarIndex;
 	private EntryResolver entryResolver;
+	private ClassNode bridgeCheckedClass;
+	private boolean bridgeCheckedClassHasBridges;
+
+	// Shared with the shards, cleared once the indexing ends
+	private final Map<String, String[]> externalParameterNames;
+	private final Map<MethodEntry, Boolean> declaredInHierarchy;
+	private final CacheStatistics statistics = new CacheStatistics();
 
 	public DelegateParametersIndex() {
+		this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+	}
+
+	private DelegateParametersIndex(Map<String, String[]> externalParameterNames, Map<MethodEntry, Boolean> declaredInHierarchy) {
 		super(Arguments.DISABLE_DELEGATE_PARAMS);
+		this.externalParameterNames = externalParameterNames;
+		this.declaredInHierarchy = declaredInHierarchy;
 	}
 
 	private static boolean isSameMethod(ClassNode owner, MethodNode node, MethodInsnNode methodInsn) {
@@ -79,6 +103,8 @@ public class DelegateParametersIndex extends Index {
 		for (var method : node.methods) {
 			try {
 				this.visitMethodNode(classProvider, node, method);
+			} catch (AnalyzerException e) {
+				// Reported by the analysis cache, skip the method
 			} catch (Exception e) {
 				Logger.error(e, "Error visiting method " + method.name + method.desc + " in class " + node.name);
 				throw new RuntimeException(e);
@@ -92,16 +118,15 @@ public class DelegateParametersIndex extends Index {
 		}
 
 		// Only index root methods
-		var methodEntry = MethodEntry.parse(classNode.name, node.name, node.desc);
-		var resolved = this.entryResolver.resolveEntry(methodEntry, ResolutionStrategy.RESOLVE_ROOT);
-		if (resolved.size() > 1 || !resolved.contains(methodEntry)) {
+		var methodEntry = this.getEntryPool().methodEntry(classNode.name, node.name, node.desc);
+		if (!this.isRootMethod(classNode, node, methodEntry)) {
 			return;
 		}
 
 		var hasParameterInfo = node.parameters != null && !node.parameters.isEmpty();
 		var paramsByTarget = new HashMap<LocalVariableEntry, LocalVariableEntry>();
 
-		var frames = new Analyzer<>(new LocalVariableInterpreter()).analyze(classNode.name, node);
+		var frames = this.getAnalysisCache().getFrames(classNode.name, node, LOCAL_VARIABLES);
 		var instructions = node.instructions;
 
 		for (int i = 0; i < instructions.size(); i++) {
@@ -109,17 +134,19 @@ public class DelegateParametersIndex extends Index {
 
 			// Check INVOKE* instructions, excluding INVOKEDYNAMICs and recursive invocations
 			if (insn instanceof MethodInsnNode invokedMethod && !isSameMethod(classNode, node, invokedMethod)) {
-				var invokedEntry = MethodEntry.parse(invokedMethod.owner, invokedMethod.name, invokedMethod.desc);
+				var invokedEntry = this.getEntryPool().methodEntry(invokedMethod.owner, invokedMethod.name, invokedMethod.desc);
 				var frame = frames[i];
 				var isStatic = invokedMethod.getOpcode() == INVOKESTATIC;
 
 				var invokedDesc = Type.getMethodType(invokedMethod.desc);
 				var local = invokedDesc.getArgumentsAndReturnSizes() >> 2;
 				local -= isStatic ? 1 : 0;
+				// The frames are shared with other indexes, read the arguments without popping them
+				var stackIndex = frame.getStackSize();
 
 				// Check each of the arguments passed to the invocation
 				for (int j = invokedDesc.getArgumentCount() - 1; j >= 0; j--) {
-					var value = frame.pop();
+					var value = frame.getStack(--stackIndex);
 					local -= value.getSize();
 
 					// If one of the passed arguments is a parameter of the original method, save it
@@ -134,13 +161,13 @@ public class DelegateParametersIndex extends Index {
 						}
 
 						// Skip invalid parameters
-						var paramEntry = new LocalVariableEntry(methodEntry, value.local);
+						var paramEntry = this.getEntryPool().localEntry(methodEntry, value.local);
 						if (this.invalidParameters.contains(paramEntry)) {
 							continue;
 						}
 
 						// If another entry was linked to the same one inside this method, remove it and skip this one
-						var targetEntry = new LocalVariableEntry(invokedEntry, local);
+						var targetEntry = this.getEntryPool().localEntry(invokedEntry, local);
 						if (paramsByTarget.containsKey(targetEntry)) {
 							var otherParam = paramsByTarget.get(targetEntry);
 
@@ -160,26 +187,9 @@ public class DelegateParametersIndex extends Index {
 
 						// Try to load a variable name directly from an external class file
 						if (!this.classes.contains(invokedMethod.owner)) {
-							var targetClass = classProvider.get(invokedMethod.owner);
-
-							if (targetClass != null) {
-								var targetMethod = AsmUtil.getMethod(targetClass, invokedMethod.name, invokedMethod.desc);
-								if (targetMethod.isEmpty() || targetMethod.get().localVariables == null) {
-									continue;
-								} else if (AsmUtil.matchAccess(targetMethod.get(), ACC_SYNTHETIC) || AsmUtil.matchAccess(targetMethod.get(), ACC_BRIDGE)) {
-									continue;
-								}
-
-								var localVariables = targetMethod.get().localVariables;
-								for (var localVar : localVariables) {
-									if (localVar.index == local) {
-										if (localVar.name != null) {
-											this.parameterNames.put(paramEntry, localVar.name);
-										}
-
-										break;
-									}
-								}
+							var names = this.getExternalParameterNames(classProvider, invokedMethod);
+							if (local < names.length && names[local] != null) {
+								this.parameterNames.put(paramEntry, names[local]);
 							}
 						}
 					}
@@ -188,6 +198,122 @@ public class DelegateParametersIndex extends Index {
 		}
 	}
 
+	/**
+	 * Checks whether a method is its own root, without going through the entry resolver when the answer is certain:
+	 * private methods never override anything, and a method which isn't declared in any ancestor of its class and
+	 * which can't be the specialization of a bridge method is always its own root.
+	 */
+	private boolean isRootMethod(ClassNode classNode, MethodNode node, MethodEntry methodEntry) {
+		this.statistics.rootResolutions++;
+		if (AsmUtil.matchAccess(node, ACC_PRIVATE)) {
+			this.statistics.rootResolutionsSkipped++;
+			return true;
+		}
+
+		if (!this.hasBridgeMethods(classNode)) {
+			var inheritance = this.jarIndex.getIndex(InheritanceIndex.class);
+			var entryIndex = this.jarIndex.getIndex(EntryIndex.class);
+			boolean inherited = false;
+
+			for (ClassEntry parent : inheritance.getParents(methodEntry.getParent())) {
+				if (this.isDeclaredInHierarchy(inheritance, entryIndex, this.getEntryPool().methodEntry(parent, node.name, node.desc))) {
+					inherited = true;
+					break;
+				}
+			}
+
+			if (!inherited) {
+				this.statistics.rootResolutionsSkipped++;
+				return true;
+			}
+		}
+
+		var resolved = this.entryResolver.resolveEntry(methodEntry, ResolutionStrategy.RESOLVE_ROOT);
+		return resolved.size() == 1 && resolved.contains(methodEntry);
+	}
+
+	private boolean hasBridgeMethods(ClassNode classNode) {
+		// The methods of a class are visited one after the other, only check its bridges once
+		if (this.bridgeCheckedClass != classNode) {
+			this.bridgeCheckedClass = classNode;
+			this.bridgeCheckedClassHasBridges = classNode.methods.stream().anyMatch(method -> AsmUtil.matchAccess(method, ACC_BRIDGE));
+		}
+
+		return this.bridgeCheckedClassHasBridges;
+	}
+
+	/**
+	 * {@return whether the method is declared in its class or in any of its ancestors known by the entry index}
+	 * The results are memoised for every class of the hierarchy, so that sibling classes only walk their common ancestors once.
+	 */
+	private boolean isDeclaredInHierarchy(InheritanceIndex inheritance, EntryIndex entryIndex, MethodEntry method) {
+		this.statistics.hierarchyLookups++;
+		var cached = this.declaredInHierarchy.get(method);
+		if (cached != null) {
+			this.statistics.hierarchyHits++;
+			return cached;
+		}
+
+		boolean declared = entryIndex.getEntryAccess(method) != null;
+		if (!declared) {
+			for (ClassEntry parent : inheritance.getParents(method.getParent())) {
+				if (this.isDeclaredInHierarchy(inheritance, entryIndex, this.getEntryPool().methodEntry(parent, method.getName(), method.getDesc().toString()))) {
+					declared = true;
+					break;
+				}
+			}
+		}
+
+		this.declaredInHierarchy.put(method, declared);
+		return declared;
+	}
+
+	/**
+	 * {@return the local variable names of an external method, by local index}
+	 * External classes are only read once per indexing, as library methods are usually invoked from many places.
+	 */
+	private String[] getExternalParameterNames(ClassProvider classProvider, MethodInsnNode invokedMethod) {
+		this.statistics.externalLookups++;
+		var key = invokedMethod.owner + '.' + invokedMethod.name + invokedMethod.desc;
+		var names = this.externalParameterNames.get(key);
+		if (names != null) {
+			this.statistics.externalHits++;
+			return names;
+		}
+
+		names = readParameterNames(classProvider, invokedMethod);
+		var previous = this.externalParameterNames.putIfAbsent(key, names);
+		return previous != null ? previous : names;
+	}
+
+	private static String[] readParameterNames(ClassProvider classProvider, MethodInsnNode invokedMethod) {
+		var targetClass = classProvider.get(invokedMethod.owner);
+		if (targetClass == null) {
+			return NO_PARAMETER_NAMES;
+		}
+
+		var targetMethod = AsmUtil.getMethod(targetClass, invokedMethod.name, invokedMethod.desc);
+		if (targetMethod.isEmpty() || targetMethod.get().localVariables == null) {
+			return NO_PARAMETER_NAMES;
+		} else if (AsmUtil.matchAccess(targetMethod.get(), ACC_SYNTHETIC) || AsmUtil.matchAccess(targetMethod.get(), ACC_BRIDGE)) {
+			return NO_PARAMETER_NAMES;
+		}
+
+		var localVariables = targetMethod.get().localVariables;
+		int size = 0;
+		for (var localVar : localVariables) {
+			size = Math.max(size, localVar.index + 1);
+		}
+
+		// The first variable of each index is the one used, even if it has no name
+		var names = new String[size];
+		for (int i = localVariables.size() - 1; i >= 0; i--) {
+			names[localVariables.get(i).index] = localVariables.get(i).name;
+		}
+
+		return names;
+	}
+
 	private boolean tryLink(LocalVariableEntry paramEntry, LocalVariableEntry targetEntry) {
 		if (paramEntry.equals(targetEntry)) {
 			throw new IllegalArgumentException("Can't link a parameter to itself!");
@@ -225,18 +351,89 @@ public class DelegateParametersIndex extends Index {
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		return new DelegateParametersIndex(this.externalParameterNames, this.declaredInHierarchy);
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		// Every parameter of a shard belongs to a class visited by that shard, so the results never overlap
+		var other = (DelegateParametersIndex) shard;
+		this.linkedParameters.putAll(other.linkedParameters);
+		this.parameterNames.putAll(other.parameterNames);
+		this.invalidParameters.addAll(other.invalidParameters);
+		other.parameterLinks.forEach((target, links) -> this.parameterLinks.computeIfAbsent(target, e -> new HashSet<>()).addAll(links));
+		this.statistics.add(other.statistics);
+	}
+
 	@Override
 	public void onIndexingEnded() {
+		if (this.statistics.rootResolutions > 0) {
+			Logger.debug("Delegate parameters: {}", this.statistics);
+		}
+
+		this.externalParameterNames.clear();
+		this.declaredInHierarchy.clear();
 		this.classes = null;
 		this.jarIndex = null;
 		this.entryResolver = null;
+		this.bridgeCheckedClass = null;
+	}
+
+	@Override
+	public void compact(EntryIdTable ids) {
+		this.linkedParameters = new CompactEntryMap<>(ids, this.linkedParameters);
 	}
 
 	@Override
 	public void reset() {
-		this.linkedParameters.clear();
+		this.linkedParameters = new HashMap<>();
+		this.parameterLinks.clear();
 		this.parameterNames.clear();
 		this.invalidParameters.clear();
+		this.externalParameterNames.clear();
+		this.declaredInHierarchy.clear();
+		this.statistics.clear();
+	}
+
+	@Override
+	public void collectDependentClasses(Set<String> changedClasses, Set<String> dependentClasses) {
+		// Only root methods are indexed, which depends on the ancestors of their class
+		var inheritance = this.jarIndex.getIndex(InheritanceIndex.class);
+		for (String changedClass : changedClasses) {
+			for (ClassEntry descendant : inheritance.getDescendants(new ClassEntry(changedClass))) {
+				dependentClasses.add(descendant.getFullName());
+			}
+		}
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		// Every linked parameter belongs to a method of the class that was visited
+		for (var param : List.copyOf(this.linkedParameters.keySet())) {
+			if (classes.contains(param.getContainingClass().getFullName())) {
+				this.remove(param);
+			}
+		}
+
+		this.parameterNames.keySet().removeIf(param -> classes.contains(param.getContainingClass().getFullName()));
+		this.parameterLinks.values().removeIf(Set::isEmpty);
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.linkedParameters, IndexCacheWriter::writeLocal, IndexCacheWriter::writeLocal);
+		out.writeMap(this.parameterNames, IndexCacheWriter::writeLocal, IndexCacheWriter::writeString);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.linkedParameters, IndexCacheReader::readLocal, IndexCacheReader::readLocal);
+		in.readMap(this.parameterNames, IndexCacheReader::readLocal, IndexCacheReader::readString);
+
+		// The invalid parameters are only needed while visiting the classes
+		this.linkedParameters.forEach((param, target) -> this.parameterLinks.computeIfAbsent(target, e -> new HashSet<>()).add(param));
 	}
 
 	public Set<LocalVariableEntry> getKeys() {
@@ -255,6 +452,44 @@ public class DelegateParametersIndex extends Index {
 		return this.parameterNames.get(entry);
 	}
 
+	private static final class CacheStatistics {
+		private long rootResolutions;
+		private long rootResolutionsSkipped;
+		private long hierarchyLookups;
+		private long hierarchyHits;
+		private long externalLookups;
+		private long externalHits;
+
+		private void add(CacheStatistics other) {
+			this.rootResolutions += other.rootResolutions;
+			this.rootResolutionsSkipped += other.rootResolutionsSkipped;
+			this.hierarchyLookups += other.hierarchyLookups;
+			this.hierarchyHits += other.hierarchyHits;
+			this.externalLookups += other.externalLookups;
+			this.externalHits += other.externalHits;
+		}
+
+		private void clear() {
+			this.rootResolutions = 0;
+			this.rootResolutionsSkipped = 0;
+			this.hierarchyLookups = 0;
+			this.hierarchyHits = 0;
+			this.externalLookups = 0;
+			this.externalHits = 0;
+		}
+
+		private static String rate(long hits, long lookups) {
+			return String.format("%d/%d (%.1f%%)", hits, lookups, lookups == 0 ? 0.0 : hits * 100.0 / lookups);
+		}
+
+		@Override
+		public String toString() {
+			return "root resolutions skipped " + rate(this.rootResolutionsSkipped, this.rootResolutions)
+					+ ", hierarchy cache hits " + rate(this.hierarchyHits, this.hierarchyLookups)
+					+ ", external parameter names cache hits " + rate(this.externalHits, this.externalLookups);
+		}
+	}
+
 	public record LocalVariableValue(int size, boolean parameter, int local) implements Value {
 		public LocalVariableValue(int size) {
 			this(size, false, -1);
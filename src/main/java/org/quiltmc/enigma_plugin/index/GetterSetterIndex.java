@@ -17,8 +17,6 @@
 package org.quiltmc.enigma_plugin.index;
 
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
@@ -27,17 +25,22 @@ import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
+import org.quiltmc.enigma_plugin.util.CompactEntryMap;
 import org.quiltmc.enigma_plugin.util.Descriptors;
+import org.quiltmc.enigma_plugin.util.EntryIdTable;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class GetterSetterIndex extends Index {
-	private final Map<MethodEntry, FieldEntry> linked = new HashMap<>();
-	private final Map<LocalVariableEntry, FieldEntry> linkedSetterParams = new HashMap<>();
+public class GetterSetterIndex extends Index implements IncrementalIndex {
+	private Map<MethodEntry, FieldEntry> linked = new HashMap<>();
+	private Map<LocalVariableEntry, FieldEntry> linkedSetterParams = new HashMap<>();
 	private final Map<FieldEntry, Set<Entry<?>>> links = new HashMap<>();
 
 	public GetterSetterIndex() {
@@ -75,20 +78,68 @@ public class GetterSetterIndex extends Index {
 	}
 
 	private void linkField(ClassNode classNode, MethodNode methodNode, MethodDescriptor descriptor, FieldNode fieldNode) {
-		var classEntry = new ClassEntry(classNode.name);
-		var methodEntry = new MethodEntry(classEntry, methodNode.name, descriptor);
-		var fieldEntry = new FieldEntry(classEntry, fieldNode.name, new TypeDescriptor(fieldNode.desc));
+		var classEntry = this.getEntryPool().classEntry(classNode.name);
+		var methodEntry = this.getEntryPool().methodEntry(classEntry, methodNode.name, methodNode.desc);
+		var fieldEntry = this.getEntryPool().fieldEntry(classEntry, fieldNode.name, fieldNode.desc);
 
 		this.linked.put(methodEntry, fieldEntry);
 		this.links.computeIfAbsent(fieldEntry, f -> new HashSet<>()).add(methodEntry);
 
 		if (descriptor.getArgumentDescs().size() == 1) {
-			var paramEntry = new LocalVariableEntry(methodEntry, 1);
+			var paramEntry = this.getEntryPool().localEntry(methodEntry, 1);
 			this.linkedSetterParams.put(paramEntry, fieldEntry);
 			this.links.get(fieldEntry).add(paramEntry);
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		return new GetterSetterIndex();
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		var other = (GetterSetterIndex) shard;
+		this.linked.putAll(other.linked);
+		this.linkedSetterParams.putAll(other.linkedSetterParams);
+		other.links.forEach((field, links) -> this.links.computeIfAbsent(field, f -> new HashSet<>()).addAll(links));
+	}
+
+	@Override
+	public void compact(EntryIdTable ids) {
+		this.linked = new CompactEntryMap<>(ids, this.linked);
+		this.linkedSetterParams = new CompactEntryMap<>(ids, this.linkedSetterParams);
+	}
+
+	@Override
+	public void reset() {
+		this.linked = new HashMap<>();
+		this.linkedSetterParams = new HashMap<>();
+		this.links.clear();
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		this.linked.keySet().removeIf(method -> classes.contains(method.getContainingClass().getFullName()));
+		this.linkedSetterParams.keySet().removeIf(param -> classes.contains(param.getContainingClass().getFullName()));
+		this.links.keySet().removeIf(field -> classes.contains(field.getContainingClass().getFullName()));
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.linked, IndexCacheWriter::writeMethod, IndexCacheWriter::writeField);
+		out.writeMap(this.linkedSetterParams, IndexCacheWriter::writeLocal, IndexCacheWriter::writeField);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.linked, IndexCacheReader::readMethod, IndexCacheReader::readField);
+		in.readMap(this.linkedSetterParams, IndexCacheReader::readLocal, IndexCacheReader::readField);
+
+		this.linked.forEach((method, field) -> this.links.computeIfAbsent(field, f -> new HashSet<>()).add(method));
+		this.linkedSetterParams.forEach((param, field) -> this.links.computeIfAbsent(field, f -> new HashSet<>()).add(param));
+	}
+
 	public FieldEntry getLinkedField(MethodEntry method) {
 		return this.linked.get(method);
 	}
@@ -105,6 +156,10 @@ public class GetterSetterIndex extends Index {
 		return this.links.containsKey(field);
 	}
 
+	public Set<FieldEntry> getLinkedFields() {
+		return this.links.keySet();
+	}
+
 	public Set<MethodEntry> getLinkedMethods() {
 		return this.linked.keySet();
 	}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+
+import java.util.Set;
+
+/**
+ * A cacheable index the cached results of which can be updated by only visiting the changed classes.
+ * Incremental indexes must be able to tell which of their results came from visiting each class,
+ * see {@link #removeClasses(Set)}.
+ */
+public interface IncrementalIndex extends CacheableIndex {
+	/**
+	 * Collects the classes whose results depend on changed or removed classes, and must be visited again.
+	 * Called after {@link Index#setIndexingContext(Set, JarIndex)}.
+	 *
+	 * @param changedClasses the classes which were added, modified or removed
+	 * @param dependentClasses the set to add the dependent classes to
+	 */
+	default void collectDependentClasses(Set<String> changedClasses, Set<String> dependentClasses) {
+	}
+
+	/**
+	 * Removes the results obtained by visiting the given classes, so that they can be visited again.
+	 *
+	 * @param classes the names of the classes
+	 */
+	void removeClasses(Set<String> classes);
+}
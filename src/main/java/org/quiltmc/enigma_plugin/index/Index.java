@@ -24,6 +24,8 @@ import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.JarIndexerService;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.util.EntryIdTable;
+import org.quiltmc.enigma_plugin.util.EntryPool;
 
 import java.util.Set;
 
@@ -31,6 +33,8 @@ public abstract class Index implements Opcodes {
 	@Nullable
 	private final String toggleKey;
 	private boolean enabled;
+	private MethodAnalysisCache analysisCache = new MethodAnalysisCache();
+	private EntryPool entryPool = new EntryPool();
 
 	protected Index(@Nullable String toggleKey, boolean enabled) {
 		this.toggleKey = toggleKey;
@@ -50,6 +54,32 @@ public abstract class Index implements Opcodes {
 	public void setIndexingContext(Set<String> classes, JarIndex jarIndex) {
 	}
 
+	/**
+	 * Sets the cache used to analyze the methods of the visited classes, shared with the other indexes visiting the same classes.
+	 *
+	 * @param analysisCache the analysis cache
+	 */
+	public void setAnalysisCache(MethodAnalysisCache analysisCache) {
+		this.analysisCache = analysisCache;
+	}
+
+	protected MethodAnalysisCache getAnalysisCache() {
+		return this.analysisCache;
+	}
+
+	/**
+	 * Sets the pool used to create the entries of the results, shared with the other indexes of the same indexing run.
+	 *
+	 * @param entryPool the entry pool
+	 */
+	public void setEntryPool(EntryPool entryPool) {
+		this.entryPool = entryPool;
+	}
+
+	protected EntryPool getEntryPool() {
+		return this.entryPool;
+	}
+
 	public void visitClassNode(ClassProvider classProvider, ClassNode node) {
 		this.visitClassNode(node);
 	}
@@ -57,9 +87,47 @@ public abstract class Index implements Opcodes {
 	public void visitClassNode(ClassNode node) {
 	}
 
+	/**
+	 * Creates an empty index with the same configuration as this one, used to visit a part of the classes
+	 * on a worker thread when parallel indexing is enabled.
+	 * Shards are merged back into this index, in scope order, with {@link #mergeShard(Index)} before {@link #onIndexingEnded()} is called.
+	 *
+	 * @return the new shard, or {@code null} if this index has to visit every class itself
+	 */
+	@Nullable
+	public Index createShard() {
+		return null;
+	}
+
+	/**
+	 * Merges the results of a shard created by {@link #createShard()} into this index.
+	 *
+	 * @param shard the shard to merge
+	 */
+	public void mergeShard(Index shard) {
+	}
+
+	/**
+	 * {@return the parts of the classes this index looks at}
+	 * Changes to the other parts of a class don't invalidate the {@linkplain CacheableIndex cached} results of this index.
+	 * The visited classes are still fully parsed, see {@link ParseDepth}.
+	 */
+	public ParseDepth getParseDepth() {
+		return ParseDepth.CODE;
+	}
+
 	public void onIndexingEnded() {
 	}
 
+	/**
+	 * Replaces the results of this index with a more compact representation, after indexing ended.
+	 * The results must stay accessible through the same getters.
+	 *
+	 * @param ids the table assigning the ids of the entries, shared by every index
+	 */
+	public void compact(EntryIdTable ids) {
+	}
+
 	public void reset() {
 	}
 
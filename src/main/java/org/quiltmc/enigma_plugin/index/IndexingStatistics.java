@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import com.sun.management.ThreadMXBean;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of the indexes, collected by the {@link JarIndexer} while indexing a jar.
+ * The times and allocations of classes visited in parallel are summed over every thread.
+ */
+public class IndexingStatistics {
+	@Nullable
+	private static final ThreadMXBean THREAD_BEAN = getThreadBean();
+
+	private final Map<Class<? extends Index>, IndexStatistics> indexes = new LinkedHashMap<>();
+	private long linearStackAnalyses;
+	private long fullStackAnalyses;
+	private final List<MethodAnalysisCache.SkippedMethod> skippedMethods = new ArrayList<>();
+
+	@Nullable
+	private static ThreadMXBean getThreadBean() {
+		if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+			return bean;
+		}
+
+		return null;
+	}
+
+	/**
+	 * {@return whether the bytes allocated by the indexes are measured}
+	 */
+	public static boolean isAllocationMeasured() {
+		return THREAD_BEAN != null;
+	}
+
+	/**
+	 * {@return the bytes allocated by the current thread since it started, or {@code 0} if allocations aren't measured}
+	 */
+	static long currentThreadAllocatedBytes() {
+		return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : 0;
+	}
+
+	synchronized void addVisits(Class<? extends Index> index, int classes, int methods, long nanos, long allocatedBytes) {
+		IndexStatistics statistics = this.get(index);
+		statistics.classes += classes;
+		statistics.methods += methods;
+		statistics.visitNanos += nanos;
+		statistics.visitAllocatedBytes += allocatedBytes;
+	}
+
+	synchronized void addIndexingEnded(Class<? extends Index> index, long nanos, long allocatedBytes) {
+		IndexStatistics statistics = this.get(index);
+		statistics.endNanos += nanos;
+		statistics.endAllocatedBytes += allocatedBytes;
+	}
+
+	synchronized void addStackAnalyses(MethodAnalysisCache analysisCache) {
+		this.linearStackAnalyses += analysisCache.getLinearStackAnalyses();
+		this.fullStackAnalyses += analysisCache.getFullStackAnalyses();
+	}
+
+	synchronized void addSkippedMethods(List<MethodAnalysisCache.SkippedMethod> skippedMethods) {
+		this.skippedMethods.addAll(skippedMethods);
+	}
+
+	/**
+	 * {@return the number of methods the stack sources of which were computed by a single linear pass}
+	 *
+	 * @see MethodAnalysisCache#getStackSources
+	 */
+	public synchronized long getLinearStackAnalyses() {
+		return this.linearStackAnalyses;
+	}
+
+	/**
+	 * {@return the number of methods the stack sources of which were computed by a full analysis, as they have branches}
+	 *
+	 * @see MethodAnalysisCache#getStackSources
+	 */
+	public synchronized long getFullStackAnalyses() {
+		return this.fullStackAnalyses;
+	}
+
+	/**
+	 * {@return the methods skipped by the indexes, as they couldn't be analyzed or exceeded the analysis budget}
+	 * Methods visited in parallel are sorted by owner, name and descriptor, so the order doesn't depend on the threads.
+	 */
+	public synchronized List<MethodAnalysisCache.SkippedMethod> getSkippedMethods() {
+		return this.skippedMethods.stream()
+				.sorted(Comparator.comparing(MethodAnalysisCache.SkippedMethod::owner)
+						.thenComparing(MethodAnalysisCache.SkippedMethod::name)
+						.thenComparing(MethodAnalysisCache.SkippedMethod::desc))
+				.toList();
+	}
+
+	private IndexStatistics get(Class<? extends Index> index) {
+		return this.indexes.computeIfAbsent(index, i -> new IndexStatistics());
+	}
+
+	/**
+	 * {@return the statistics of the given index, or {@code null} if it didn't run}
+	 */
+	public synchronized @Nullable IndexStatistics getIndex(Class<? extends Index> index) {
+		IndexStatistics statistics = this.indexes.get(index);
+		return statistics == null ? null : statistics.copy();
+	}
+
+	/**
+	 * {@return a copy of the statistics of every index which ran, in running order}
+	 */
+	public synchronized Map<Class<? extends Index>, IndexStatistics> getIndexes() {
+		Map<Class<? extends Index>, IndexStatistics> copy = new LinkedHashMap<>();
+		this.indexes.forEach((index, statistics) -> copy.put(index, statistics.copy()));
+		return Collections.unmodifiableMap(copy);
+	}
+
+	/**
+	 * {@return a table summarizing the statistics of every index}
+	 */
+	public synchronized String toTable() {
+		var table = new StringBuilder();
+		String format = "%-28s %9s %9s %11s %11s %15s%n";
+		table.append(String.format(format, "Index", "Classes", "Methods", "Visit (ms)", "End (ms)", isAllocationMeasured() ? "Allocated (MB)" : "Allocated"));
+
+		var total = new IndexStatistics();
+		this.indexes.forEach((index, statistics) -> {
+			table.append(statistics.toRow(format, index.getSimpleName()));
+			total.visitNanos += statistics.visitNanos;
+			total.endNanos += statistics.endNanos;
+			total.visitAllocatedBytes += statistics.visitAllocatedBytes;
+			total.endAllocatedBytes += statistics.endAllocatedBytes;
+		});
+
+		table.append(String.format(format, "Total", "", "", formatMillis(total.visitNanos), formatMillis(total.endNanos), formatBytes(total.getAllocatedBytes())));
+		table.append(String.format("Stack analyses: %d linear, %d full, %d methods skipped%n", this.linearStackAnalyses, this.fullStackAnalyses, this.skippedMethods.size()));
+		return table.toString();
+	}
+
+	private static String formatMillis(long nanos) {
+		return String.format("%.1f", nanos / 1_000_000.0);
+	}
+
+	private static String formatBytes(long bytes) {
+		return isAllocationMeasured() ? String.format("%.1f", bytes / (1024.0 * 1024.0)) : "n/a";
+	}
+
+	public static final class IndexStatistics {
+		private int classes;
+		private int methods;
+		private long visitNanos;
+		private long endNanos;
+		private long visitAllocatedBytes;
+		private long endAllocatedBytes;
+
+		/**
+		 * {@return the number of classes visited by the index}
+		 */
+		public int getClasses() {
+			return this.classes;
+		}
+
+		/**
+		 * {@return the number of methods in the classes visited by the index}
+		 */
+		public int getMethods() {
+			return this.methods;
+		}
+
+		/**
+		 * {@return the time spent visiting classes, in nanoseconds}
+		 */
+		public long getVisitNanos() {
+			return this.visitNanos;
+		}
+
+		/**
+		 * {@return the time spent in {@link Index#onIndexingEnded()}, in nanoseconds}
+		 */
+		public long getEndNanos() {
+			return this.endNanos;
+		}
+
+		/**
+		 * {@return the bytes allocated while visiting classes and in {@link Index#onIndexingEnded()}, or {@code 0} if allocations aren't measured}
+		 */
+		public long getAllocatedBytes() {
+			return this.visitAllocatedBytes + this.endAllocatedBytes;
+		}
+
+		private IndexStatistics copy() {
+			var copy = new IndexStatistics();
+			copy.classes = this.classes;
+			copy.methods = this.methods;
+			copy.visitNanos = this.visitNanos;
+			copy.endNanos = this.endNanos;
+			copy.visitAllocatedBytes = this.visitAllocatedBytes;
+			copy.endAllocatedBytes = this.endAllocatedBytes;
+			return copy;
+		}
+
+		private String toRow(String format, String name) {
+			return String.format(format, name, this.classes, this.methods, formatMillis(this.visitNanos), formatMillis(this.endNanos), formatBytes(this.getAllocatedBytes()));
+		}
+	}
+}
@@ -16,25 +16,56 @@
 
 package org.quiltmc.enigma_plugin.index;
 
+import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.JarIndexerService;
+import org.quiltmc.enigma_plugin.Arguments;
 import org.quiltmc.enigma_plugin.QuiltEnigmaPlugin;
+import org.quiltmc.enigma_plugin.index.cache.IndexCache;
 import org.quiltmc.enigma_plugin.index.constant_fields.ConstantFieldIndex;
 import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleSubtypeSingleIndex;
 import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleTypeSingleIndex;
+import org.quiltmc.enigma_plugin.jfr.IndexVisitEvent;
+import org.quiltmc.enigma_plugin.jfr.IndexingEndedEvent;
+import org.quiltmc.enigma_plugin.util.EntryIdTable;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+import org.tinylog.Logger;
 
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class JarIndexer implements JarIndexerService, Opcodes {
+	// Split the scope in more chunks than threads so that a few slow classes don't leave the other threads idle
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int DEFAULT_ANALYSIS_TIMEOUT_MILLIS = 0;
 	private final HashMap<Class<? extends Index>, Index> indexes = new LinkedHashMap<>();
+	private boolean parallelIndexing;
+	private boolean compactIndexes;
+	private Path indexCachePath;
+	private long duplicateEntriesAvoided;
+	private MethodAnalysisCache.Budget analysisBudget = MethodAnalysisCache.Budget.UNLIMITED;
+	private IndexingStatistics statistics = new IndexingStatistics();
 
 	public JarIndexer() {
 		this.addIndex(new RecordIndex());
@@ -63,12 +94,22 @@ public class JarIndexer implements JarIndexerService, Opcodes {
 			index.withContext(context);
 		}
 
+		this.parallelIndexing = Arguments.getBoolean(context, Arguments.PARALLEL_INDEXING);
+		this.compactIndexes = Arguments.getBoolean(context, Arguments.COMPACT_INDEXES);
+		this.indexCachePath = context.getSingleArgument(Arguments.INDEX_CACHE_PATH).map(context::getPath).orElse(null);
+		this.analysisBudget = new MethodAnalysisCache.Budget(
+				Arguments.getInt(context, Arguments.ANALYSIS_MAX_INSTRUCTIONS, 0),
+				TimeUnit.MILLISECONDS.toNanos(Arguments.getInt(context, Arguments.ANALYSIS_TIMEOUT, DEFAULT_ANALYSIS_TIMEOUT_MILLIS))
+		);
+
 		return this;
 	}
 
 	@Override
 	public void acceptJar(Set<String> scope, ProjectClassProvider classProvider, JarIndex jarIndex) {
 		List<Index> enabledIndexes = new ArrayList<>(this.indexes.size());
+		var entryPool = new EntryPool();
+		this.statistics = new IndexingStatistics();
 
 		for (var index : this.indexes.values()) {
 			index.reset();
@@ -76,20 +117,298 @@ public class JarIndexer implements JarIndexerService, Opcodes {
 			if (index.isEnabled()) {
 				enabledIndexes.add(index);
 				index.setIndexingContext(scope, jarIndex);
+				index.setEntryPool(entryPool);
+			}
+		}
+
+		List<CacheableIndex> cacheableIndexes = this.indexCachePath == null ? List.of() : enabledIndexes.stream()
+				.filter(CacheableIndex.class::isInstance)
+				.map(CacheableIndex.class::cast)
+				.toList();
+		if (cacheableIndexes.isEmpty()) {
+			this.indexClasses(scope, scope, classProvider, jarIndex, enabledIndexes);
+		} else {
+			// The cache holds the state of the indexes before onIndexingEnded, so that it runs the same way with cached results
+			var cache = new IndexCache(this.indexCachePath, cacheableIndexes, entryPool, this.analysisBudget, getLibraryFiles());
+			long loadStart = System.nanoTime();
+			IndexCache.Changes changes = cache.load(scope, classProvider);
+			Logger.debug("Checked the index cache {} in {} ms", this.indexCachePath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart));
+
+			if (changes == null) {
+				this.indexClasses(scope, scope, classProvider, jarIndex, enabledIndexes);
+				this.saveCache(cache);
+			} else if (changes.isEmpty()) {
+				Logger.debug("Loaded {} indexes from cache {}", cacheableIndexes.size(), this.indexCachePath);
+				this.indexClasses(scope, scope, classProvider, jarIndex, enabledIndexes.stream().filter(index -> !(index instanceof CacheableIndex)).toList());
+			} else {
+				this.updateIndexes(scope, classProvider, jarIndex, enabledIndexes, changes);
+				this.saveCache(cache);
 			}
 		}
 
+		for (var index : enabledIndexes) {
+			var event = new IndexingEndedEvent();
+			event.begin();
+			long start = System.nanoTime();
+			long startAllocatedBytes = IndexingStatistics.currentThreadAllocatedBytes();
+
+			index.onIndexingEnded();
+
+			event.index = index.getClass().getSimpleName();
+			event.commit();
+			this.statistics.addIndexingEnded(index.getClass(), System.nanoTime() - start, IndexingStatistics.currentThreadAllocatedBytes() - startAllocatedBytes);
+		}
+
+		if (this.compactIndexes) {
+			var ids = new EntryIdTable();
+			for (var index : enabledIndexes) {
+				index.compact(ids);
+			}
+
+			Logger.debug("Compacted the index results, with {} distinct entries", ids.size());
+		}
+
+		Logger.debug("Indexed {} classes:\n{}", scope.size(), this.statistics.toTable());
+
+		var skippedMethods = this.statistics.getSkippedMethods();
+		if (!skippedMethods.isEmpty()) {
+			Logger.warn("Skipped {} methods which couldn't be analyzed:\n{}", skippedMethods.size(),
+					skippedMethods.stream().map(MethodAnalysisCache.SkippedMethod::toString).collect(Collectors.joining("\n")));
+		}
+
+		// The indexes keep the entries they use, the pool is only needed while indexing
+		this.duplicateEntriesAvoided = entryPool.getDuplicatesAvoided();
+		Logger.debug("Created {} distinct entries while indexing, avoiding {} duplicates", entryPool.size(), this.duplicateEntriesAvoided);
+		entryPool.clear();
+	}
+
+	/**
+	 * {@return the statistics of the indexes during the last indexing}
+	 */
+	public IndexingStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * {@return the number of duplicate entries the indexes didn't create during the last indexing, thanks to sharing an entry pool}
+	 */
+	public long getDuplicateEntriesAvoided() {
+		return this.duplicateEntriesAvoided;
+	}
+
+	/**
+	 * {@return the files of the JVM classpath}
+	 * Enigma reads the library classes with its classpath class provider, which loads them from the JVM classpath.
+	 */
+	private static List<Path> getLibraryFiles() {
+		return Arrays.stream(System.getProperty("java.class.path", "").split(File.pathSeparator))
+				.filter(file -> !file.isEmpty())
+				.map(Path::of)
+				.toList();
+	}
+
+	/**
+	 * Saves the results of the indexes, unless the analysis of a method timed out:
+	 * the results then depend on the speed of the machine, and another run may find more.
+	 */
+	private void saveCache(IndexCache cache) {
+		if (this.statistics.getSkippedMethods().stream().anyMatch(MethodAnalysisCache.SkippedMethod::timedOut)) {
+			Logger.debug("Not saving the index cache {}, the analysis of some methods timed out", this.indexCachePath);
+			return;
+		}
+
+		cache.save();
+	}
+
+	/**
+	 * Updates the cached results of the indexes after some classes changed.
+	 * Incremental indexes drop the results of the changed classes and of the classes depending on them, and only visit these again.
+	 * The other indexes are reset and visit every class.
+	 */
+	private void updateIndexes(Set<String> scope, ProjectClassProvider classProvider, JarIndex jarIndex, List<Index> indexes, IndexCache.Changes changes) {
+		Set<String> changedClasses = new HashSet<>(changes.changed());
+		changedClasses.addAll(changes.removed());
+
+		Set<String> invalidatedClasses = new HashSet<>(changedClasses);
+		List<Index> incrementalIndexes = new ArrayList<>();
+		List<Index> fullIndexes = new ArrayList<>();
+
+		for (var index : indexes) {
+			if (index instanceof IncrementalIndex incrementalIndex) {
+				incrementalIndex.collectDependentClasses(changedClasses, invalidatedClasses);
+				incrementalIndexes.add(index);
+			} else {
+				fullIndexes.add(index);
+			}
+		}
+
+		for (var index : incrementalIndexes) {
+			((IncrementalIndex) index).removeClasses(invalidatedClasses);
+		}
+
+		for (var index : fullIndexes) {
+			if (index instanceof CacheableIndex) {
+				index.reset();
+			}
+		}
+
+		// Keep the scope order, so the results are the same as when visiting every class
+		Set<String> revisitedClasses = new LinkedHashSet<>();
 		for (String className : scope) {
-			ClassNode node = classProvider.get(className);
+			if (invalidatedClasses.contains(className)) {
+				revisitedClasses.add(className);
+			}
+		}
+
+		Logger.debug("{} classes changed and {} were removed since the index cache was saved, visiting {} classes again",
+				changes.changed().size(), changes.removed().size(), revisitedClasses.size());
+
+		this.indexClasses(scope, revisitedClasses, classProvider, jarIndex, incrementalIndexes);
+		this.indexClasses(scope, scope, classProvider, jarIndex, fullIndexes);
+	}
+
+	private void indexClasses(Set<String> scope, Collection<String> classNames, ProjectClassProvider classProvider, JarIndex jarIndex, List<Index> indexes) {
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (this.parallelIndexing && threads > 1 && classNames.size() > 1) {
+			this.visitClassesInParallel(scope, classNames, classProvider, jarIndex, indexes, threads);
+		} else {
+			Iterable<ClassNode> nodes = () -> classNames.stream().map(classProvider::get).filter(Objects::nonNull).iterator();
+			this.visitClasses(nodes, classProvider, indexes, new MethodAnalysisCache(this.analysisBudget));
+		}
+	}
+
+	private void visitClasses(Iterable<ClassNode> nodes, ClassProvider classProvider, List<Index> indexes, MethodAnalysisCache analysisCache) {
+		if (indexes.isEmpty()) {
+			return;
+		}
+
+		for (var index : indexes) {
+			index.setAnalysisCache(analysisCache);
+		}
+
+		int classes = 0;
+		int methods = 0;
+		long[] nanos = new long[indexes.size()];
+		long[] allocatedBytes = new long[indexes.size()];
+		var events = new IndexVisitEvent[indexes.size()];
+		for (int i = 0; i < events.length; i++) {
+			events[i] = new IndexVisitEvent();
+			events[i].begin();
+		}
+
+		for (ClassNode node : nodes) {
+			for (int i = 0; i < indexes.size(); i++) {
+				long start = System.nanoTime();
+				long startAllocatedBytes = IndexingStatistics.currentThreadAllocatedBytes();
+
+				indexes.get(i).visitClassNode(classProvider, node);
+
+				nanos[i] += System.nanoTime() - start;
+				allocatedBytes[i] += IndexingStatistics.currentThreadAllocatedBytes() - startAllocatedBytes;
+			}
+
+			classes++;
+			methods += node.methods.size();
+			analysisCache.clear();
+		}
+
+		this.statistics.addStackAnalyses(analysisCache);
+		this.statistics.addSkippedMethods(analysisCache.getSkippedMethods());
+
+		for (int i = 0; i < indexes.size(); i++) {
+			Index index = indexes.get(i);
+			this.statistics.addVisits(index.getClass(), classes, methods, nanos[i], allocatedBytes[i]);
+
+			IndexVisitEvent event = events[i];
+			if (event.shouldCommit()) {
+				event.index = index.getClass().getSimpleName();
+				event.classes = classes;
+				event.methods = methods;
+				event.indexTime = nanos[i];
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Visits the classes with a pool of worker threads.
+	 * The classes are split in contiguous chunks, each visited by a worker thread with its own shards of the shardable indexes.
+	 * The shards are then merged back in order, so the results are the same as when visiting the classes sequentially.
+	 * Indexes which can't be sharded still visit every class, in order, on the calling thread.
+	 * Each thread has its own analysis cache, shared by the indexes visiting classes on that thread.
+	 *
+	 * <p>Nothing guarantees that Enigma's class providers are thread-safe, so the visited classes are loaded beforehand
+	 * on the calling thread, and the indexes looking up other classes go through a {@link SynchronizedClassProvider}.
+	 */
+	private void visitClassesInParallel(Set<String> scope, Collection<String> classesToVisit, ProjectClassProvider classProvider, JarIndex jarIndex, List<Index> indexes, int threads) {
+		List<Index> shardedIndexes = new ArrayList<>();
+		List<Index> sequentialIndexes = new ArrayList<>();
+		List<Index> firstShards = new ArrayList<>();
+
+		for (var index : indexes) {
+			Index shard = index.createShard();
+			if (shard != null) {
+				shardedIndexes.add(index);
+				firstShards.add(shard);
+			} else {
+				sequentialIndexes.add(index);
+			}
+		}
+
+		var synchronizedProvider = new SynchronizedClassProvider(classProvider);
+		List<ClassNode> nodes = new ArrayList<>(classesToVisit.size());
+		for (String className : classesToVisit) {
+			ClassNode node = synchronizedProvider.get(className);
 			if (node != null) {
-				for (var index : enabledIndexes) {
-					index.visitClassNode(classProvider, node);
+				nodes.add(node);
+			}
+		}
+
+		int chunkCount = Math.min(nodes.size(), threads * CHUNKS_PER_THREAD);
+		List<List<Index>> shardsByChunk = new ArrayList<>(chunkCount);
+		List<Future<?>> futures = new ArrayList<>(chunkCount);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			for (int i = 0; i < chunkCount; i++) {
+				List<ClassNode> chunk = nodes.subList(i * nodes.size() / chunkCount, (i + 1) * nodes.size() / chunkCount);
+				List<Index> shards = new ArrayList<>(shardedIndexes.size());
+
+				for (int j = 0; j < shardedIndexes.size(); j++) {
+					Index shard = i == 0 ? firstShards.get(j) : shardedIndexes.get(j).createShard();
+					shard.setIndexingContext(scope, jarIndex);
+					shard.setEntryPool(shardedIndexes.get(j).getEntryPool());
+					shards.add(shard);
 				}
+
+				shardsByChunk.add(shards);
+				futures.add(executor.submit(() -> this.visitClasses(chunk, synchronizedProvider, shards, new MethodAnalysisCache(this.analysisBudget))));
+			}
+
+			this.visitClasses(nodes, synchronizedProvider, sequentialIndexes, new MethodAnalysisCache(this.analysisBudget));
+
+			for (var future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while indexing", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			} else if (e.getCause() instanceof Error error) {
+				throw error;
 			}
+
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
 		}
 
-		for (var index : enabledIndexes) {
-			index.onIndexingEnded();
+		for (var shards : shardsByChunk) {
+			for (int i = 0; i < shardedIndexes.size(); i++) {
+				shardedIndexes.get(i).mergeShard(shards.get(i));
+			}
 		}
 	}
 
@@ -97,4 +416,19 @@ public class JarIndexer implements JarIndexerService, Opcodes {
 	public String getId() {
 		return QuiltEnigmaPlugin.INDEX_SERVICE_ID;
 	}
+
+	/**
+	 * Serializes the accesses to a class provider shared by the threads visiting classes in parallel.
+	 */
+	private record SynchronizedClassProvider(ClassProvider delegate) implements ClassProvider {
+		@Override
+		public synchronized @Nullable ClassNode get(String name) {
+			return this.delegate.get(name);
+		}
+
+		@Override
+		public synchronized Collection<String> getClassNames() {
+			return this.delegate.getClassNames();
+		}
+	}
 }
@@ -17,35 +17,36 @@
 package org.quiltmc.enigma_plugin.index;
 
 import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.InvokeDynamicInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
-import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
+import org.quiltmc.enigma_plugin.util.AsmUtil;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static org.quiltmc.enigma_plugin.util.AsmUtil.matchAccess;
 
-public class LambdaParametersIndex extends Index {
+public class LambdaParametersIndex extends Index implements CacheableIndex {
 	// param descriptors of non-final java.lang.Object instance methods
 	private static final Map<String, String> NON_FUNCTIONAL_METHOD_PARAMS_DESCRIPTORS = Map.of(
 			"hashCode", "()",
@@ -55,11 +56,8 @@ public class LambdaParametersIndex extends Index {
 			"finalize", "()"
 	);
 
-	private static final String RETURN_TYPE_GROUP = "returnType";
-	private static final Pattern RETURN_TYPE_PATTERN = Pattern.compile("\\([^\\)]*\\)L(?<" + RETURN_TYPE_GROUP + ">.+);");
-
 	private final Map<LocalVariableEntry, List<LocalVariableEntry>> lambdaParamsByFunctionalParam = new HashMap<>();
-	private final Map<MethodNode, List<LocalVariableEntry>> functionalMethodParams = new HashMap<>();
+	private final Map<String, Optional<List<LocalVariableEntry>>> functionalParamsByInterface = new HashMap<>();
 
 	public LambdaParametersIndex() {
 		super(Arguments.DISABLE_LAMBDA_PARAMS);
@@ -77,77 +75,129 @@ public class LambdaParametersIndex extends Index {
 
 	@Override
 	public void visitClassNode(ClassProvider provider, ClassNode node) {
+		Map<String, MethodNode> methodsByNameAndDesc = null;
+
 		for (final MethodNode method : node.methods) {
-			final List<AbstractInsnNode> instructions = new ArrayList<>();
-			method.instructions.forEach(instructions::add);
-			for (final AbstractInsnNode instruction : instructions) {
-				if (instruction instanceof InvokeDynamicInsnNode invokeDynamic) {
-					if (!isLambdaMetaFactory(invokeDynamic.bsm)) {
-						continue;
+			for (AbstractInsnNode instruction = method.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+				if (!(instruction instanceof InvokeDynamicInsnNode invokeDynamic) || !isLambdaMetaFactory(invokeDynamic.bsm)) {
+					continue;
+				}
+
+				final String functionalInterface = getReturnType(invokeDynamic.desc);
+				if (functionalInterface == null) {
+					continue;
+				}
+
+				final List<LocalVariableEntry> functionalParams = this.getFunctionalParams(provider, functionalInterface);
+				final Handle handle = getSingleHandle(invokeDynamic.bsmArgs);
+				if (functionalParams == null || handle == null) {
+					continue;
+				}
+
+				final MethodNode lambda;
+				if (handle.getOwner().equals(node.name)) {
+					// Lambda bodies are almost always in the same class, index its methods once
+					if (methodsByNameAndDesc == null) {
+						methodsByNameAndDesc = new HashMap<>();
+						for (final MethodNode classMethod : node.methods) {
+							methodsByNameAndDesc.put(classMethod.name + classMethod.desc, classMethod);
+						}
 					}
 
-					getReturnType(invokeDynamic.desc).map(provider::get).ifPresent(invokeDynamicReturnType -> {
-						getFunctionalMethod(invokeDynamicReturnType).ifPresent(functionalMethod -> {
-							final List<Handle> handles = Arrays
-									.stream(invokeDynamic.bsmArgs)
-									.flatMap(arg -> arg instanceof Handle handle ? Stream.of(handle) : Stream.empty())
-									.toList();
-							if (handles.size() == 1) {
-								final Handle handle = handles.get(0);
-
-								final ClassNode owner = provider.get(handle.getOwner());
-								if (owner != null) {
-									owner.methods.stream()
-											.filter(handleMethod -> handleMethod.name.equals(handle.getName()))
-											.filter(handleMethod -> handleMethod.desc.equals(handle.getDesc()))
-											.filter(handleMethod -> matchAccess(handleMethod, ACC_PRIVATE, ACC_SYNTHETIC))
-											.findAny()
-											.ifPresent(lambda -> {
-												final List<LocalVariableEntry> functionalParams = this
-														.functionalMethodParams
-														.computeIfAbsent(functionalMethod, funcMethod ->
-															createParamEntries(invokeDynamicReturnType, funcMethod)
-														);
-
-												final List<LocalVariableEntry> lambdaParams = createParamEntries(owner, lambda);
-
-												final int lambdaParamOffset = lambdaParams.size() - functionalParams.size();
-												assert lambdaParamOffset >= 0;
-
-												for (int i = 0; i < functionalParams.size(); i++) {
-													this.lambdaParamsByFunctionalParam
-															.computeIfAbsent(
-																functionalParams.get(i),
-																ignored -> new ArrayList<>()
-															)
-															.add(lambdaParams.get(i + lambdaParamOffset));
-												}
-											});
-								}
-							}
-						});
-					});
+					lambda = methodsByNameAndDesc.get(handle.getName() + handle.getDesc());
+				} else {
+					final ClassNode owner = provider.get(handle.getOwner());
+					lambda = owner == null ? null : AsmUtil.getMethod(owner, handle.getName(), handle.getDesc()).orElse(null);
+				}
+
+				if (lambda == null || !matchAccess(lambda, ACC_PRIVATE, ACC_SYNTHETIC)) {
+					continue;
+				}
+
+				final List<LocalVariableEntry> lambdaParams = this.createParamEntries(handle.getOwner(), lambda);
+
+				final int lambdaParamOffset = lambdaParams.size() - functionalParams.size();
+				assert lambdaParamOffset >= 0;
+
+				for (int i = 0; i < functionalParams.size(); i++) {
+					this.lambdaParamsByFunctionalParam
+							.computeIfAbsent(
+								functionalParams.get(i),
+								ignored -> new ArrayList<>()
+							)
+							.add(lambdaParams.get(i + lambdaParamOffset));
 				}
 			}
 		}
 	}
 
-	private static MethodEntry entryOf(ClassNode parent, MethodNode node) {
-		return entryOf(new ClassEntry(parent.name), node);
+	/**
+	 * {@return the parameters of the functional method of an interface, or {@code null} if it isn't a functional interface}
+	 * The results are cached for the whole indexing, including the types which aren't functional interfaces.
+	 */
+	@Nullable
+	private List<LocalVariableEntry> getFunctionalParams(ClassProvider provider, String type) {
+		return this.functionalParamsByInterface.computeIfAbsent(type, t -> {
+			final ClassNode functionalInterface = provider.get(t);
+			if (functionalInterface == null) {
+				return Optional.empty();
+			}
+
+			return getFunctionalMethod(functionalInterface)
+					.map(functionalMethod -> this.createParamEntries(functionalInterface.name, functionalMethod));
+		}).orElse(null);
+	}
+
+	@Override
+	public Index createShard() {
+		return new LambdaParametersIndex();
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		// Shards are merged in scope order, so the lambda parameters keep the order of a sequential visit
+		((LambdaParametersIndex) shard).lambdaParamsByFunctionalParam.forEach((functionalParam, lambdaParams) -> {
+			this.lambdaParamsByFunctionalParam.computeIfAbsent(functionalParam, ignored -> new ArrayList<>()).addAll(lambdaParams);
+		});
+	}
+
+	@Override
+	public void reset() {
+		this.lambdaParamsByFunctionalParam.clear();
+		this.functionalParamsByInterface.clear();
+	}
+
+	@Override
+	public void onIndexingEnded() {
+		this.functionalParamsByInterface.clear();
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.lambdaParamsByFunctionalParam, IndexCacheWriter::writeLocal, (o, lambdaParams) -> o.writeCollection(lambdaParams, IndexCacheWriter::writeLocal));
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.lambdaParamsByFunctionalParam, IndexCacheReader::readLocal, i -> {
+			List<LocalVariableEntry> lambdaParams = new ArrayList<>();
+			i.readCollection(lambdaParams, IndexCacheReader::readLocal);
+			return lambdaParams;
+		});
 	}
 
-	private static MethodEntry entryOf(ClassEntry parent, MethodNode node) {
-		return new MethodEntry(parent, node.name, new MethodDescriptor(node.desc));
+	private MethodEntry entryOf(String parent, MethodNode node) {
+		return this.getEntryPool().methodEntry(parent, node.name, node.desc);
 	}
 
 	@Unmodifiable
-	private static List<LocalVariableEntry> createParamEntries(ClassNode parent, MethodNode funcMethod) {
+	private List<LocalVariableEntry> createParamEntries(String parent, MethodNode funcMethod) {
 		final List<LocalVariableEntry> params = new ArrayList<>();
-		final MethodEntry parentEntry = entryOf(parent, funcMethod);
+		final MethodEntry parentEntry = this.entryOf(parent, funcMethod);
 
 		int i = matchAccess(funcMethod, ACC_STATIC) ? 0 : 1;
 		for (final ArgumentDescriptor paramDesc : parentEntry.getDesc().getArgumentDescs()) {
-			params.add(new LocalVariableEntry(parentEntry, i));
+			params.add(this.getEntryPool().localEntry(parentEntry, i));
 			i += paramDesc.getSize();
 		}
 
@@ -174,13 +224,29 @@ public class LambdaParametersIndex extends Index {
 		}
 	}
 
-	private static Optional<String> getReturnType(String desc) {
-		final Matcher matcher = RETURN_TYPE_PATTERN.matcher(desc);
-		if (matcher.find()) {
-			return Optional.of(matcher.group(RETURN_TYPE_GROUP));
-		} else {
-			return Optional.empty();
+	/**
+	 * {@return the internal name of the returned class of a method descriptor, or {@code null} if it doesn't return an object}
+	 */
+	@Nullable
+	private static String getReturnType(String desc) {
+		final Type returnType = Type.getReturnType(desc);
+		return returnType.getSort() == Type.OBJECT ? returnType.getInternalName() : null;
+	}
+
+	@Nullable
+	private static Handle getSingleHandle(Object[] bsmArgs) {
+		Handle handle = null;
+		for (final Object arg : bsmArgs) {
+			if (arg instanceof Handle argHandle) {
+				if (handle != null) {
+					return null;
+				}
+
+				handle = argHandle;
+			}
 		}
+
+		return handle;
 	}
 
 	private static boolean isLambdaMetaFactory(Handle handle) {
@@ -16,17 +16,18 @@
 
 package org.quiltmc.enigma_plugin.index;
 
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.objectweb.asm.tree.ClassNode;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
-public class LoggerIndex extends Index {
+public class LoggerIndex extends Index implements IncrementalIndex {
 	private static final String LOGGER_TYPE = "Lorg/slf4j/Logger;";
 
 	private final Set<FieldEntry> fields = new HashSet<>();
@@ -37,12 +38,12 @@ public class LoggerIndex extends Index {
 
 	@Override
 	public void visitClassNode(ClassNode node) {
-		var parentEntry = new ClassEntry(node.name);
+		var parentEntry = this.getEntryPool().classEntry(node.name);
 
 		for (var field : node.fields) {
 			if (AsmUtil.matchAccess(field, ACC_STATIC, ACC_FINAL)) {
 				if (field.desc.equals(LOGGER_TYPE)) {
-					var fieldEntry = new FieldEntry(parentEntry, field.name, new TypeDescriptor(field.desc));
+					var fieldEntry = this.getEntryPool().fieldEntry(parentEntry, field.name, field.desc);
 
 					this.fields.add(fieldEntry);
 				}
@@ -50,6 +51,41 @@ public class LoggerIndex extends Index {
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		return new LoggerIndex();
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		this.fields.addAll(((LoggerIndex) shard).fields);
+	}
+
+	@Override
+	public void reset() {
+		this.fields.clear();
+	}
+
+	@Override
+	public ParseDepth getParseDepth() {
+		return ParseDepth.MEMBERS;
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		this.fields.removeIf(field -> classes.contains(field.getContainingClass().getFullName()));
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeCollection(this.fields, IndexCacheWriter::writeField);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readCollection(this.fields, IndexCacheReader::readField);
+	}
+
 	public boolean hasField(FieldEntry field) {
 		return this.fields.contains(field);
 	}
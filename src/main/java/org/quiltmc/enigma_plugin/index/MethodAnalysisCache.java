@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.Interpreter;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+import org.objectweb.asm.tree.analysis.Value;
+import org.quiltmc.enigma_plugin.util.LinearStackSources;
+import org.quiltmc.enigma_plugin.util.StackSources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shares the frames of the analyzed methods between the indexes visiting a class.
+ * The frames of a method are computed lazily, at most once per {@link Kind interpreter kind},
+ * and are released once every index has visited the class.
+ *
+ * <p>The returned frames are shared, and must not be modified.
+ *
+ * <p>Methods exceeding the {@link Budget analysis budget}, or which can't be analyzed at all, fail with an {@link AnalyzerException}
+ * which the indexes handle by skipping the method. These failures are cached per interpreter kind as well, and recorded as {@link SkippedMethod skipped methods}.
+ */
+public class MethodAnalysisCache {
+	/**
+	 * Tracks the instructions producing each value, see {@link SourceInterpreter}.
+	 */
+	public static final Kind<SourceValue> SOURCE = new Kind<>(SourceInterpreter::new);
+
+	private final Budget budget;
+	private final Map<Kind<?>, Analyzer<?>> analyzers = new HashMap<>();
+	private final Map<Kind<?>, Map<MethodNode, Frame<?>[]>> frames = new HashMap<>();
+	private final Map<MethodNode, StackSources> stackSources = new IdentityHashMap<>();
+	private final Map<Kind<?>, Map<MethodNode, AnalyzerException>> failures = new HashMap<>();
+	private final List<SkippedMethod> skippedMethods = new ArrayList<>();
+	private int linearStackAnalyses;
+	private int fullStackAnalyses;
+
+	public MethodAnalysisCache() {
+		this(Budget.UNLIMITED);
+	}
+
+	public MethodAnalysisCache(Budget budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Computes the frames of a method, or returns the ones already computed for the same kind of analysis.
+	 *
+	 * @throws AnalyzerException if the method can't be analyzed, or exceeds the analysis budget
+	 */
+	@SuppressWarnings("unchecked")
+	public <V extends Value> Frame<V>[] getFrames(String owner, MethodNode method, Kind<V> kind) throws AnalyzerException {
+		Map<MethodNode, Frame<?>[]> framesByMethod = this.frames.computeIfAbsent(kind, k -> new IdentityHashMap<>());
+		Frame<?>[] methodFrames = framesByMethod.get(method);
+
+		if (methodFrames == null) {
+			// Don't try again for the other indexes when a method already failed with the same kind of analysis
+			Map<MethodNode, AnalyzerException> failuresByMethod = this.failures.computeIfAbsent(kind, k -> new IdentityHashMap<>());
+			AnalyzerException failure = failuresByMethod.get(method);
+			if (failure != null) {
+				throw failure;
+			}
+
+			try {
+				if (this.budget.exceedsInstructions(method)) {
+					throw new AnalyzerException(null, "Method has " + method.instructions.size() + " instructions, the limit is " + this.budget.maxInstructions());
+				}
+
+				var analyzer = (Analyzer<V>) this.analyzers.computeIfAbsent(kind, k -> new BudgetedAnalyzer<>(k.createInterpreter(), this.budget));
+				methodFrames = analyzer.analyze(owner, method);
+			} catch (AnalyzerException e) {
+				failuresByMethod.put(method, e);
+				this.skippedMethods.add(new SkippedMethod(owner, method.name, method.desc, e.getMessage(), e.getCause() instanceof AnalysisTimeoutException));
+				throw e;
+			}
+
+			framesByMethod.put(method, methodFrames);
+		}
+
+		return (Frame<V>[]) methodFrames;
+	}
+
+	/**
+	 * Computes the sources of the stack values of a method. Methods without branches are analyzed by a single
+	 * {@linkplain LinearStackSources linear pass}, the other ones fall back to the {@link #SOURCE} frames.
+	 * The linear pass isn't limited by the analysis budget, as its cost only grows with the size of the method.
+	 *
+	 * @throws AnalyzerException if the method has branches and can't be analyzed, or exceeds the analysis budget
+	 */
+	public StackSources getStackSources(String owner, MethodNode method) throws AnalyzerException {
+		StackSources sources = this.stackSources.get(method);
+
+		if (sources == null) {
+			sources = LinearStackSources.compute(method);
+
+			if (sources != null) {
+				this.linearStackAnalyses++;
+			} else {
+				sources = StackSources.of(this.getFrames(owner, method, SOURCE));
+				this.fullStackAnalyses++;
+			}
+
+			this.stackSources.put(method, sources);
+		}
+
+		return sources;
+	}
+
+	/**
+	 * {@return the number of methods the stack sources of which were computed by a linear pass}
+	 */
+	public int getLinearStackAnalyses() {
+		return this.linearStackAnalyses;
+	}
+
+	/**
+	 * {@return the number of methods the stack sources of which were computed from analyzed frames}
+	 */
+	public int getFullStackAnalyses() {
+		return this.fullStackAnalyses;
+	}
+
+	/**
+	 * {@return the methods which failed to be analyzed or exceeded the analysis budget, in analysis order}
+	 */
+	public List<SkippedMethod> getSkippedMethods() {
+		return Collections.unmodifiableList(this.skippedMethods);
+	}
+
+	/**
+	 * Releases the frames of every analyzed method.
+	 */
+	public void clear() {
+		this.frames.clear();
+		this.stackSources.clear();
+		this.failures.clear();
+	}
+
+	/**
+	 * Limits the analysis of a single method, so that a few huge generated methods can't slow down the whole indexing.
+	 *
+	 * @param maxInstructions the maximum number of instructions of an analyzed method, or {@code 0} for no limit
+	 * @param timeoutNanos the maximum duration of the analysis of a method, or {@code 0} for no limit
+	 */
+	public record Budget(int maxInstructions, long timeoutNanos) {
+		public static final Budget UNLIMITED = new Budget(0, 0);
+
+		private boolean exceedsInstructions(MethodNode method) {
+			return this.maxInstructions > 0 && method.instructions.size() > this.maxInstructions;
+		}
+	}
+
+	/**
+	 * A method which wasn't analyzed, so the indexes skipped it.
+	 *
+	 * @param reason why the analysis failed
+	 * @param timedOut whether the analysis was stopped by the timeout, so that another run may succeed
+	 */
+	public record SkippedMethod(String owner, String name, String desc, String reason, boolean timedOut) {
+		@Override
+		public String toString() {
+			return this.owner + "." + this.name + this.desc + ": " + this.reason;
+		}
+	}
+
+	/**
+	 * An analyzer stopping once the analysis of a method took longer than the budget allows.
+	 */
+	private static final class BudgetedAnalyzer<V extends Value> extends Analyzer<V> {
+		// Only check the time every few edges, as there's one per instruction at least
+		private static final int EDGES_PER_CHECK = 1024;
+		private final long timeoutNanos;
+		private long deadline;
+		private int edges;
+
+		private BudgetedAnalyzer(Interpreter<V> interpreter, Budget budget) {
+			super(interpreter);
+			this.timeoutNanos = budget.timeoutNanos();
+		}
+
+		@Override
+		public Frame<V>[] analyze(String owner, MethodNode method) throws AnalyzerException {
+			this.deadline = System.nanoTime() + this.timeoutNanos;
+			this.edges = 0;
+			return super.analyze(owner, method);
+		}
+
+		@Override
+		protected void newControlFlowEdge(int insnIndex, int successorIndex) {
+			if (this.timeoutNanos > 0 && ++this.edges % EDGES_PER_CHECK == 0 && System.nanoTime() - this.deadline > 0) {
+				// Wrapped in an AnalyzerException by the analyzer
+				throw new AnalysisTimeoutException("Analysis took longer than " + this.timeoutNanos / 1_000_000 + " ms");
+			}
+		}
+	}
+
+	private static final class AnalysisTimeoutException extends RuntimeException {
+		private AnalysisTimeoutException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * A kind of analysis, identified by the interpreter it uses.
+	 *
+	 * @param <V> the type of the values produced by the interpreter
+	 */
+	public static final class Kind<V extends Value> {
+		private final Supplier<? extends Interpreter<V>> interpreterFactory;
+
+		public Kind(Supplier<? extends Interpreter<V>> interpreterFactory) {
+			this.interpreterFactory = interpreterFactory;
+		}
+
+		private Interpreter<V> createInterpreter() {
+			return this.interpreterFactory.get();
+		}
+	}
+}
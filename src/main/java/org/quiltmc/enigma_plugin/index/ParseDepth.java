@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+/**
+ * The parts of a class an {@link Index} looks at when visiting it.
+ * Each depth includes the parts of the previous ones.
+ *
+ * <p>Enigma's class providers only hand out fully parsed classes, so the depth doesn't make the {@link JarIndexer} parse classes lighter.
+ * It only decides which parts of each class the {@linkplain org.quiltmc.enigma_plugin.index.cache.IndexCache index cache} hashes,
+ * and is part of the key of the cache.
+ */
+public enum ParseDepth {
+	/**
+	 * The class header: access, name, super class, interfaces, signature and nest information.
+	 */
+	HEADER,
+	/**
+	 * The declarations of the fields and methods, including the method parameters, but not the method bodies.
+	 */
+	MEMBERS,
+	/**
+	 * The whole class, including the method bodies.
+	 */
+	CODE;
+
+	/**
+	 * {@return the deepest of both depths}
+	 */
+	public ParseDepth max(ParseDepth other) {
+		return this.compareTo(other) >= 0 ? this : other;
+	}
+}
@@ -25,13 +25,15 @@ import org.objectweb.asm.tree.InvokeDynamicInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.VarInsnNode;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.objectweb.asm.Handle;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,7 +43,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-public class RecordIndex extends Index {
+public class RecordIndex extends Index implements IncrementalIndex {
 	private static final Handle TO_STRING_HANDLE = new Handle(H_INVOKESTATIC, "java/lang/runtime/ObjectMethods", "bootstrap", "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/TypeDescriptor;Ljava/lang/Class;Ljava/lang/String;[Ljava/lang/invoke/MethodHandle;)Ljava/lang/Object;", false);
 	private static final Handle HASH_CODE_HANDLE = new Handle(H_INVOKESTATIC, "java/lang/runtime/ObjectMethods", "bootstrap", "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/TypeDescriptor;Ljava/lang/Class;Ljava/lang/String;[Ljava/lang/invoke/MethodHandle;)Ljava/lang/Object;", false);
 	private static final Handle EQUALS_HANDLE = new Handle(H_INVOKESTATIC, "java/lang/runtime/ObjectMethods", "bootstrap", "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/TypeDescriptor;Ljava/lang/Class;Ljava/lang/String;[Ljava/lang/invoke/MethodHandle;)Ljava/lang/Object;", false);
@@ -51,18 +53,18 @@ public class RecordIndex extends Index {
 		super(Arguments.DISABLE_RECORDS);
 	}
 
-	private static ClassEntry getClassEntry(ClassNode node) {
-		return new ClassEntry(node.name);
+	private ClassEntry getClassEntry(ClassNode node) {
+		return this.getEntryPool().classEntry(node.name);
 	}
 
-	private static FieldEntry createFieldEntry(ClassEntry classEntry, Handle fieldHandle) {
+	private FieldEntry createFieldEntry(ClassEntry classEntry, Handle fieldHandle) {
 		int tag = fieldHandle.getTag();
 		if (tag == H_GETFIELD || tag == H_GETSTATIC || tag == H_PUTFIELD || tag == H_PUTSTATIC) {
 			String className = fieldHandle.getOwner();
 			if (classEntry.getFullName().equals(className)) {
 				String fieldName = fieldHandle.getName();
 				String fieldDesc = fieldHandle.getDesc();
-				return new FieldEntry(classEntry, fieldName, new TypeDescriptor(fieldDesc));
+				return this.getEntryPool().fieldEntry(classEntry, fieldName, fieldDesc);
 			}
 		}
 
@@ -188,7 +190,7 @@ public class RecordIndex extends Index {
 			return;
 		}
 
-		ClassEntry classEntry = getClassEntry(node);
+		ClassEntry classEntry = this.getClassEntry(node);
 		if (this.records.containsKey(classEntry) && this.records.get(classEntry).hasComponents()) {
 			return;
 		}
@@ -248,7 +250,7 @@ public class RecordIndex extends Index {
 		for (int i = 0; i < unobfuscatedFieldNames.length; i++) {
 			String unobfuscatedFieldName = unobfuscatedFieldNames[i];
 			Handle fieldHandle = (Handle) bsmArgs[2 + i];
-			FieldEntry fieldEntry = createFieldEntry(classEntry, fieldHandle);
+			FieldEntry fieldEntry = this.createFieldEntry(classEntry, fieldHandle);
 			this.records.computeIfAbsent(classEntry, k -> new RecordComponentData()).add(fieldEntry, unobfuscatedFieldName);
 		}
 	}
@@ -286,18 +288,48 @@ public class RecordIndex extends Index {
 		}
 
 		FieldInsnNode field = (FieldInsnNode) second;
-		FieldEntry fieldEntry = new FieldEntry(classEntry, field.name, new TypeDescriptor(field.desc));
+		FieldEntry fieldEntry = this.getEntryPool().fieldEntry(classEntry, field.name, field.desc);
 		if (!this.records.containsKey(classEntry)) {
 			return;
 		}
 
 		RecordComponentData data = this.records.get(classEntry);
 		if (fieldEntry.getDesc().equals(methodDescriptor.getReturnDesc()) && data.isComponentField(fieldEntry)) {
-			MethodEntry methodEntry = new MethodEntry(classEntry, node.name, methodDescriptor);
+			MethodEntry methodEntry = this.getEntryPool().methodEntry(classEntry, node.name, node.desc);
 			data.addAccessorMethod(fieldEntry, methodEntry);
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		return new RecordIndex();
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		this.records.putAll(((RecordIndex) shard).records);
+	}
+
+	@Override
+	public void reset() {
+		this.records.clear();
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		this.records.keySet().removeIf(record -> classes.contains(record.getFullName()));
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.records, IndexCacheWriter::writeClass, (o, data) -> data.write(o));
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.records, IndexCacheReader::readClass, RecordComponentData::read);
+	}
+
 	public boolean isRecord(ClassEntry classEntry) {
 		return this.records.containsKey(classEntry);
 	}
@@ -436,5 +468,33 @@ public class RecordIndex extends Index {
 		public boolean hasComponents() {
 			return !this.unobfuscatedFieldNames.isEmpty();
 		}
+
+		void write(IndexCacheWriter out) throws IOException {
+			out.writeVarInt(this.fieldEntries.size());
+			for (int i = 0; i < this.fieldEntries.size(); i++) {
+				out.writeField(this.fieldEntries.get(i));
+				out.writeString(this.unobfuscatedFieldNames.get(i));
+			}
+
+			out.writeMap(this.accessorMethods, IndexCacheWriter::writeField, IndexCacheWriter::writeMethod);
+		}
+
+		static RecordComponentData read(IndexCacheReader in) throws IOException {
+			var data = new RecordComponentData();
+
+			int size = in.readVarInt();
+			for (int i = 0; i < size; i++) {
+				FieldEntry field = in.readField();
+				data.add(field, in.readString());
+			}
+
+			int accessorCount = in.readVarInt();
+			for (int i = 0; i < accessorCount; i++) {
+				FieldEntry field = in.readField();
+				data.addAccessorMethod(field, in.readMethod());
+			}
+
+			return data;
+		}
 	}
 }
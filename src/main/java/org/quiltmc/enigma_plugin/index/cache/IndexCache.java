@@ -0,0 +1,374 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index.cache;
+
+import org.jspecify.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InnerClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.ParameterNode;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma_plugin.index.CacheableIndex;
+import org.quiltmc.enigma_plugin.index.MethodAnalysisCache;
+import org.quiltmc.enigma_plugin.index.ParseDepth;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A file storing the results of the indexes after they visited the classes of a jar,
+ * so they can be loaded instead of visiting the classes again.
+ *
+ * <p>The cache stores a hash of the configuration of the cached indexes, and a hash of each class in the indexing scope.
+ * When the configuration didn't change, the cached results are loaded and the {@linkplain Changes changed classes}
+ * are reported, so that only those have to be visited again.
+ * The library files are part of the configuration, as the indexes look at the library classes too: any change to them invalidates the whole cache.
+ * Only the parts of the indexed classes looked at by the cached indexes are hashed, see {@link CacheableIndex#getParseDepth()}.
+ */
+public class IndexCache {
+	private static final int MAGIC = 0x51455049; // QEPI
+	private static final int VERSION = 5;
+
+	private final Path path;
+	private final List<CacheableIndex> indexes;
+	private final ParseDepth depth;
+	private final EntryPool entryPool;
+	private final MethodAnalysisCache.Budget analysisBudget;
+	private final List<Path> libraryFiles;
+	private byte[] configurationHash;
+	private Map<String, byte[]> classHashes;
+
+	/**
+	 * @param path the path to the cache file
+	 * @param indexes the cached indexes, in a stable order
+	 * @param entryPool the pool creating the loaded entries
+	 * @param analysisBudget the budget of the method analyses, which skip the methods exceeding it
+	 * @param libraryFiles the jars and directories the library classes are read from
+	 */
+	public IndexCache(Path path, List<CacheableIndex> indexes, EntryPool entryPool, MethodAnalysisCache.Budget analysisBudget, List<Path> libraryFiles) {
+		this.path = path;
+		this.indexes = indexes;
+		this.entryPool = entryPool;
+		this.analysisBudget = analysisBudget;
+		this.libraryFiles = libraryFiles;
+
+		ParseDepth depth = ParseDepth.HEADER;
+		for (CacheableIndex index : indexes) {
+			depth = depth.max(index.getParseDepth());
+		}
+
+		this.depth = depth;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private byte[] hashConfiguration() throws IOException {
+		MessageDigest digest = createDigest();
+
+		try (var out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+			out.writeUTF(this.depth.name());
+			writeLibraryFiles(out, this.libraryFiles);
+			out.writeInt(this.analysisBudget.maxInstructions());
+			out.writeLong(this.analysisBudget.timeoutNanos());
+
+			for (CacheableIndex index : this.indexes) {
+				out.writeUTF(index.getClass().getName());
+				index.writeCacheKey(out);
+			}
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Writes the path, size and modification time of the library files, since the indexes look at the inheritance,
+	 * the functional interfaces and the parameter names of the library classes.
+	 * Checking the files avoids reading every library class each time the cache is loaded.
+	 * The JDK classes aren't part of these files, so the Java version is written instead.
+	 */
+	private static void writeLibraryFiles(DataOutputStream out, List<Path> libraryFiles) throws IOException {
+		out.writeUTF(Runtime.version().toString());
+		out.writeInt(libraryFiles.size());
+
+		for (Path file : libraryFiles) {
+			out.writeUTF(file.toAbsolutePath().toString());
+
+			if (Files.isDirectory(file)) {
+				// The classes of a directory can change without changing the directory itself
+				List<Path> children;
+				try (Stream<Path> stream = Files.walk(file)) {
+					children = stream.filter(Files::isRegularFile).sorted().toList();
+				}
+
+				out.writeInt(children.size());
+				for (Path child : children) {
+					out.writeUTF(file.relativize(child).toString());
+					writeFileAttributes(out, child);
+				}
+			} else {
+				out.writeInt(-1);
+				writeFileAttributes(out, file);
+			}
+		}
+	}
+
+	private static void writeFileAttributes(DataOutputStream out, Path file) throws IOException {
+		if (Files.isRegularFile(file)) {
+			var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			out.writeLong(attributes.size());
+			out.writeLong(attributes.lastModifiedTime().toMillis());
+		} else {
+			out.writeLong(-1);
+		}
+	}
+
+	private static Map<String, byte[]> hashClasses(Collection<String> classNames, ClassProvider classProvider, ParseDepth depth) throws IOException {
+		MessageDigest digest = createDigest();
+		Map<String, byte[]> hashes = new HashMap<>(classNames.size());
+
+		for (String className : classNames) {
+			ClassNode node = classProvider.get(className);
+			if (node == null) {
+				continue;
+			}
+
+			if (depth == ParseDepth.CODE) {
+				ClassWriter writer = new ClassWriter(0);
+				node.accept(writer);
+				digest.update(writer.toByteArray());
+			} else {
+				// Hash the declarations directly, instead of writing the whole class
+				try (var out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+					writeDeclarations(out, node, depth);
+				}
+			}
+
+			hashes.put(className, digest.digest());
+		}
+
+		return hashes;
+	}
+
+	private static void writeDeclarations(DataOutputStream out, ClassNode node, ParseDepth depth) throws IOException {
+		out.writeInt(node.version);
+		out.writeInt(node.access);
+		writeNullableString(out, node.name);
+		writeNullableString(out, node.signature);
+		writeNullableString(out, node.superName);
+		writeStrings(out, node.interfaces);
+		writeNullableString(out, node.outerClass);
+		writeNullableString(out, node.outerMethod);
+		writeNullableString(out, node.outerMethodDesc);
+		writeNullableString(out, node.nestHostClass);
+
+		out.writeInt(node.innerClasses.size());
+		for (InnerClassNode innerClass : node.innerClasses) {
+			writeNullableString(out, innerClass.name);
+			writeNullableString(out, innerClass.outerName);
+			writeNullableString(out, innerClass.innerName);
+			out.writeInt(innerClass.access);
+		}
+
+		if (depth == ParseDepth.HEADER) {
+			return;
+		}
+
+		out.writeInt(node.fields.size());
+		for (FieldNode field : node.fields) {
+			out.writeInt(field.access);
+			writeNullableString(out, field.name);
+			writeNullableString(out, field.desc);
+			writeNullableString(out, field.signature);
+			writeNullableString(out, field.value == null ? null : field.value.getClass().getName() + ":" + field.value);
+		}
+
+		out.writeInt(node.methods.size());
+		for (MethodNode method : node.methods) {
+			out.writeInt(method.access);
+			writeNullableString(out, method.name);
+			writeNullableString(out, method.desc);
+			writeNullableString(out, method.signature);
+			writeStrings(out, method.exceptions);
+
+			out.writeInt(method.parameters == null ? -1 : method.parameters.size());
+			if (method.parameters != null) {
+				for (ParameterNode parameter : method.parameters) {
+					writeNullableString(out, parameter.name);
+					out.writeInt(parameter.access);
+				}
+			}
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values == null ? -1 : values.size());
+		if (values != null) {
+			for (String value : values) {
+				writeNullableString(out, value);
+			}
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			// Constant values may be too long to be written with writeUTF
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Loads the results of the cached indexes, if the cache exists and was saved with the same configuration.
+	 * The indexes are reset if the cache is found to be invalid while loading.
+	 *
+	 * @param classNames the names of the classes to index
+	 * @param classProvider the provider of the classes to index
+	 * @return the classes which changed since the cache was saved, or {@code null} if nothing was loaded
+	 */
+	public @Nullable Changes load(Collection<String> classNames, ClassProvider classProvider) {
+		try {
+			this.configurationHash = this.hashConfiguration();
+			this.classHashes = hashClasses(classNames, classProvider, this.depth);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to hash the indexed classes", e);
+		}
+
+		if (!Files.isRegularFile(this.path)) {
+			return null;
+		}
+
+		try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+
+			var reader = new IndexCacheReader(in, this.entryPool);
+			if (!Arrays.equals(this.configurationHash, reader.readBytes())) {
+				return null;
+			}
+
+			Map<String, byte[]> cachedHashes = new HashMap<>();
+			reader.readMap(cachedHashes, IndexCacheReader::readString, IndexCacheReader::readBytes);
+
+			for (CacheableIndex index : this.indexes) {
+				if (!in.readUTF().equals(index.getClass().getName())) {
+					throw new IOException("Unexpected index in cache, expected " + index.getClass().getName());
+				}
+
+				index.readCache(reader);
+			}
+
+			Set<String> changed = new HashSet<>();
+			this.classHashes.forEach((className, hash) -> {
+				if (!Arrays.equals(hash, cachedHashes.remove(className))) {
+					changed.add(className);
+				}
+			});
+
+			return new Changes(changed, cachedHashes.keySet());
+		} catch (IOException | RuntimeException e) {
+			Logger.warn(e, "Failed to load the index cache from {}, indexing again", this.path);
+
+			for (CacheableIndex index : this.indexes) {
+				index.reset();
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Saves the results of the cached indexes, replacing any previous cache.
+	 * Must be called after {@link #load(Collection, ClassProvider)}, which hashes the indexed classes.
+	 */
+	public void save() {
+		if (this.classHashes == null) {
+			throw new IllegalStateException("The indexed classes haven't been hashed");
+		}
+
+		try {
+			Path parent = this.path.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+
+			Path tempPath = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+			try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+
+				var writer = new IndexCacheWriter(out);
+				writer.writeBytes(this.configurationHash);
+				writer.writeMap(this.classHashes, IndexCacheWriter::writeString, IndexCacheWriter::writeBytes);
+
+				for (CacheableIndex index : this.indexes) {
+					out.writeUTF(index.getClass().getName());
+					index.writeCache(writer);
+				}
+			}
+
+			Files.move(tempPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Logger.warn(e, "Failed to save the index cache to {}", this.path);
+		}
+	}
+
+	/**
+	 * The classes which changed since a cache was saved.
+	 *
+	 * @param changed the added and modified classes
+	 * @param removed the classes which aren't indexed anymore
+	 */
+	public record Changes(Set<String> changed, Set<String> removed) {
+		public boolean isEmpty() {
+			return this.changed.isEmpty() && this.removed.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index.cache;
+
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the results of indexes from an {@link IndexCache index cache}.
+ *
+ * @see IndexCacheWriter
+ */
+public class IndexCacheReader {
+	private final DataInputStream in;
+	private final List<String> strings = new ArrayList<>();
+	private final EntryPool entryPool;
+
+	IndexCacheReader(DataInputStream in, EntryPool entryPool) {
+		this.in = in;
+		this.entryPool = entryPool;
+	}
+
+	public boolean readBoolean() throws IOException {
+		return this.in.readBoolean();
+	}
+
+	public int readVarInt() throws IOException {
+		int value = 0;
+		int shift = 0;
+		byte b;
+
+		do {
+			if (shift > 28) {
+				throw new IOException("Variable-length integer is too long");
+			}
+
+			b = this.in.readByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+
+		return value;
+	}
+
+	public byte[] readBytes() throws IOException {
+		byte[] value = new byte[this.readVarInt()];
+		this.in.readFully(value);
+		return value;
+	}
+
+	public String readString() throws IOException {
+		int id = this.readVarInt();
+		if (id == 0) {
+			return null;
+		} else if (id == 1) {
+			String value = this.in.readUTF();
+			this.strings.add(value);
+			return value;
+		} else if (id - 2 < this.strings.size()) {
+			return this.strings.get(id - 2);
+		}
+
+		throw new IOException("Unknown string id " + (id - 2));
+	}
+
+	public ClassEntry readClass() throws IOException {
+		return this.entryPool.classEntry(this.readString());
+	}
+
+	public FieldEntry readField() throws IOException {
+		ClassEntry parent = this.readClass();
+		String name = this.readString();
+		return this.entryPool.fieldEntry(parent, name, this.readString());
+	}
+
+	public MethodEntry readMethod() throws IOException {
+		ClassEntry parent = this.readClass();
+		String name = this.readString();
+		return this.entryPool.methodEntry(parent, name, this.readString());
+	}
+
+	public LocalVariableEntry readLocal() throws IOException {
+		MethodEntry parent = this.readMethod();
+		return this.entryPool.localEntry(parent, this.readVarInt());
+	}
+
+	/**
+	 * Reads the values of a collection, adding them to the given collection.
+	 *
+	 * @param destination the collection to add the values to
+	 * @param reader the reader for the values
+	 */
+	public <T> void readCollection(Collection<? super T> destination, Reader<? extends T> reader) throws IOException {
+		int size = this.readVarInt();
+
+		for (int i = 0; i < size; i++) {
+			destination.add(reader.read(this));
+		}
+	}
+
+	/**
+	 * Reads the entries of a map, putting them in the given map.
+	 *
+	 * @param destination the map to put the entries in
+	 * @param keyReader the reader for the keys
+	 * @param valueReader the reader for the values
+	 */
+	public <K, V> void readMap(Map<? super K, ? super V> destination, Reader<? extends K> keyReader, Reader<? extends V> valueReader) throws IOException {
+		int size = this.readVarInt();
+
+		for (int i = 0; i < size; i++) {
+			K key = keyReader.read(this);
+			destination.put(key, valueReader.read(this));
+		}
+	}
+
+	@FunctionalInterface
+	public interface Reader<T> {
+		T read(IndexCacheReader in) throws IOException;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index.cache;
+
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the results of indexes to an {@link IndexCache index cache}.
+ * Strings are only written once, and referenced by their id afterward.
+ *
+ * @see IndexCacheReader
+ */
+public class IndexCacheWriter {
+	private final DataOutputStream out;
+	private final Map<String, Integer> stringIds = new HashMap<>();
+
+	IndexCacheWriter(DataOutputStream out) {
+		this.out = out;
+	}
+
+	public void writeBoolean(boolean value) throws IOException {
+		this.out.writeBoolean(value);
+	}
+
+	/**
+	 * Writes a non-negative integer using as few bytes as possible.
+	 *
+	 * @param value the value to write
+	 */
+	public void writeVarInt(int value) throws IOException {
+		if (value < 0) {
+			throw new IllegalArgumentException("Can't write negative variable-length integer " + value);
+		}
+
+		while ((value & ~0x7F) != 0) {
+			this.out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		this.out.writeByte(value);
+	}
+
+	public void writeBytes(byte[] value) throws IOException {
+		this.writeVarInt(value.length);
+		this.out.write(value);
+	}
+
+	public void writeString(String value) throws IOException {
+		if (value == null) {
+			this.writeVarInt(0);
+			return;
+		}
+
+		Integer id = this.stringIds.get(value);
+		if (id != null) {
+			this.writeVarInt(id + 2);
+		} else {
+			this.stringIds.put(value, this.stringIds.size());
+			this.writeVarInt(1);
+			this.out.writeUTF(value);
+		}
+	}
+
+	public void writeClass(ClassEntry entry) throws IOException {
+		this.writeString(entry.getFullName());
+	}
+
+	public void writeField(FieldEntry entry) throws IOException {
+		this.writeClass(entry.getParent());
+		this.writeString(entry.getName());
+		this.writeString(entry.getDesc().toString());
+	}
+
+	public void writeMethod(MethodEntry entry) throws IOException {
+		this.writeClass(entry.getParent());
+		this.writeString(entry.getName());
+		this.writeString(entry.getDesc().toString());
+	}
+
+	public void writeLocal(LocalVariableEntry entry) throws IOException {
+		this.writeMethod(entry.getParent());
+		this.writeVarInt(entry.getIndex());
+	}
+
+	public <T> void writeCollection(Collection<? extends T> values, Writer<? super T> writer) throws IOException {
+		this.writeVarInt(values.size());
+
+		for (T value : values) {
+			writer.write(this, value);
+		}
+	}
+
+	public <K, V> void writeMap(Map<? extends K, ? extends V> map, Writer<? super K> keyWriter, Writer<? super V> valueWriter) throws IOException {
+		this.writeVarInt(map.size());
+
+		for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			keyWriter.write(this, entry.getKey());
+			valueWriter.write(this, entry.getValue());
+		}
+	}
+
+	@FunctionalInterface
+	public interface Writer<T> {
+		void write(IndexCacheWriter out, T value) throws IOException;
+	}
+}
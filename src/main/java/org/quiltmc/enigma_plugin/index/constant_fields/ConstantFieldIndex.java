@@ -21,49 +21,90 @@ import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.IncrementalIndex;
 import org.quiltmc.enigma_plugin.index.Index;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class ConstantFieldIndex extends Index {
-	private final Map<String, Set<String>> enumFields = new HashMap<>();
-	private final Map<String, List<MethodNode>> staticInitializers = new HashMap<>();
+public class ConstantFieldIndex extends Index implements IncrementalIndex {
+	private final ConstantFieldNameFinder finder;
 	private Map<FieldEntry, String> fieldNames;
 
 	public ConstantFieldIndex() {
+		this(new ConstantFieldNameFinder());
+	}
+
+	private ConstantFieldIndex(ConstantFieldNameFinder finder) {
 		super(Arguments.DISABLE_CONSTANT_FIELDS);
+		this.finder = finder;
 	}
 
 	@Override
 	public void visitClassNode(ClassNode node) {
+		Set<String> enumFields = new HashSet<>();
 		for (FieldNode field : node.fields) {
 			if ((field.access & ACC_ENUM) != 0) {
-				if (!this.enumFields.computeIfAbsent(node.name, k -> new HashSet<>()).add(field.name + ":" + field.desc)) {
+				if (!enumFields.add(field.name + ":" + field.desc)) {
 					throw new IllegalStateException("Found a duplicate enum field with name \"" + field.name + "\" in class " + node.name);
 				}
 			}
 		}
 
+		List<MethodNode> staticInitializers = new ArrayList<>();
 		for (MethodNode method : node.methods) {
 			if (method.name.equals("<clinit>")) {
-				this.staticInitializers.computeIfAbsent(node.name, k -> new ArrayList<>()).add(method);
+				staticInitializers.add(method);
 			}
 		}
-	}
 
-	public void findFieldNames() {
+		if (staticInitializers.isEmpty()) {
+			return;
+		}
+
+		// Analyze the static initializers right away, so their frames are shared with the other indexes visiting this class
 		try {
-			this.fieldNames = new ConstantFieldNameFinder().findNames(this);
+			this.finder.findNamesInInitializers(node.name, staticInitializers, enumFields, this.getAnalysisCache(), this.getEntryPool());
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	@Override
+	public Index createShard() {
+		return new ConstantFieldIndex(new ConstantFieldNameFinder(true));
+	}
+
+	@Override
+	public void mergeShard(Index shard) {
+		this.finder.merge(((ConstantFieldIndex) shard).finder);
+	}
+
+	@Override
+	public void removeClasses(Set<String> classes) {
+		this.finder.removeClasses(classes);
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		this.finder.writeCache(out);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		this.finder.readCache(in);
+	}
+
+	public void findFieldNames() {
+		this.fieldNames = this.finder.findNames();
+	}
+
 	@Override
 	public void onIndexingEnded() {
 		this.findFieldNames();
@@ -71,8 +112,7 @@ public class ConstantFieldIndex extends Index {
 
 	@Override
 	public void reset() {
-		this.enumFields.clear();
-		this.staticInitializers.clear();
+		this.finder.clear();
 		this.fieldNames = null;
 	}
 
@@ -87,12 +127,4 @@ public class ConstantFieldIndex extends Index {
 	public Set<FieldEntry> getFields() {
 		return this.fieldNames.keySet();
 	}
-
-	protected Map<String, Set<String>> getEnumFields() {
-		return this.enumFields;
-	}
-
-	protected Map<String, List<MethodNode>> getStaticInitializers() {
-		return this.staticInitializers;
-	}
 }
@@ -17,33 +17,54 @@
 
 package org.quiltmc.enigma_plugin.index.constant_fields;
 
+import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.FieldInsnNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
-import org.objectweb.asm.tree.analysis.Analyzer;
 import org.objectweb.asm.tree.analysis.AnalyzerException;
-import org.objectweb.asm.tree.analysis.SourceInterpreter;
-import org.objectweb.asm.tree.analysis.SourceValue;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma_plugin.index.MethodAnalysisCache;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
 import org.quiltmc.enigma_plugin.util.CasingUtil;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+import org.quiltmc.enigma_plugin.util.StackSources;
 import org.tinylog.Logger;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class ConstantFieldNameFinder implements Opcodes {
+	// The used and duplicated names are only needed to insert linked names, so they are only kept for the classes with linked fields
 	private final HashMap<String, Set<String>> usedNamesByClass = new HashMap<>();
 	private final HashMap<String, Set<String>> duplicatedNamesByClass = new HashMap<>();
-	private final HashMap<FieldEntry, FieldEntry> linkedFields = new HashMap<>();
+	// Keep the visiting order, so the links of each class are resolved in the order of its initializers
+	private final HashMap<FieldEntry, FieldEntry> linkedFields = new LinkedHashMap<>();
+	private Map<FieldEntry, String> fieldNames = new HashMap<>();
+	// Shards visiting classes in parallel defer their warnings until they are merged, so they're logged in the visiting order
+	@Nullable
+	private final List<DuplicateName> deferredWarnings;
+
+	public ConstantFieldNameFinder() {
+		this(false);
+	}
+
+	/**
+	 * @param deferWarnings whether to defer the duplicate name warnings until this finder is {@linkplain #merge merged}
+	 */
+	public ConstantFieldNameFinder(boolean deferWarnings) {
+		this.deferredWarnings = deferWarnings ? new ArrayList<>() : null;
+	}
 
 	private static boolean isClassPutStatic(String owner, AbstractInsnNode insn) {
 		return insn.getOpcode() == PUTSTATIC && ((FieldInsnNode) insn).owner.equals(owner);
@@ -99,8 +120,8 @@ public class ConstantFieldNameFinder implements Opcodes {
 		return name;
 	}
 
-	private static FieldEntry fieldFromInsn(FieldInsnNode insn) {
-		return new FieldEntry(new ClassEntry(insn.owner), insn.name, new TypeDescriptor(insn.desc));
+	private static FieldEntry fieldFromInsn(FieldInsnNode insn, EntryPool entryPool) {
+		return entryPool.fieldEntry(insn.owner, insn.name, insn.desc);
 	}
 
 	private FieldEntry followFieldLink(FieldEntry field, Map<FieldEntry, String> names) {
@@ -113,27 +134,94 @@ public class ConstantFieldNameFinder implements Opcodes {
 		return null;
 	}
 
-	private void clear() {
+	public void clear() {
 		this.usedNamesByClass.clear();
 		this.duplicatedNamesByClass.clear();
 		this.linkedFields.clear();
+		this.fieldNames = new HashMap<>();
+
+		if (this.deferredWarnings != null) {
+			this.deferredWarnings.clear();
+		}
+	}
+
+	private void warnDuplicateName(DuplicateName duplicate) {
+		if (this.deferredWarnings != null) {
+			this.deferredWarnings.add(duplicate);
+		} else {
+			Logger.warn("Duplicate field name \"{}\" (\"{}\") for field {}", duplicate.fieldName(), duplicate.name(), duplicate.field());
+		}
+	}
+
+	/**
+	 * Merges the names found by another finder, which visited different classes.
+	 *
+	 * @param other the other finder
+	 */
+	public void merge(ConstantFieldNameFinder other) {
+		this.usedNamesByClass.putAll(other.usedNamesByClass);
+		this.duplicatedNamesByClass.putAll(other.duplicatedNamesByClass);
+		this.linkedFields.putAll(other.linkedFields);
+		this.fieldNames.putAll(other.fieldNames);
+
+		if (other.deferredWarnings != null) {
+			other.deferredWarnings.forEach(this::warnDuplicateName);
+			other.deferredWarnings.clear();
+		}
 	}
 
-	public Map<FieldEntry, String> findNames(ConstantFieldIndex fieldIndex) throws Exception {
-		this.clear();
+	/**
+	 * Removes the names found in the given classes, so that they can be visited again.
+	 * The links are only resolved by {@link #findNames()}, so links to fields of these classes stay valid.
+	 *
+	 * @param classes the names of the classes
+	 */
+	public void removeClasses(Set<String> classes) {
+		this.usedNamesByClass.keySet().removeAll(classes);
+		this.duplicatedNamesByClass.keySet().removeAll(classes);
+		this.linkedFields.keySet().removeIf(field -> classes.contains(field.getParent().getFullName()));
+		this.fieldNames.keySet().removeIf(field -> classes.contains(field.getParent().getFullName()));
+	}
 
-		Analyzer<SourceValue> analyzer = new Analyzer<>(new SourceInterpreter());
-		Map<FieldEntry, String> fieldNames = new HashMap<>();
+	void writeCache(IndexCacheWriter out) throws IOException {
+		IndexCacheWriter.Writer<Set<String>> namesWriter = (o, names) -> o.writeCollection(names, IndexCacheWriter::writeString);
 
-		for (String clazz : fieldIndex.getStaticInitializers().keySet()) {
-			var initializers = fieldIndex.getStaticInitializers().get(clazz);
-			var enumFields = fieldIndex.getEnumFields().getOrDefault(clazz, Collections.emptySet());
+		out.writeMap(this.usedNamesByClass, IndexCacheWriter::writeString, namesWriter);
+		out.writeMap(this.duplicatedNamesByClass, IndexCacheWriter::writeString, namesWriter);
+		out.writeMap(this.linkedFields, IndexCacheWriter::writeField, IndexCacheWriter::writeField);
+		out.writeMap(this.fieldNames, IndexCacheWriter::writeField, IndexCacheWriter::writeString);
+	}
 
-			this.findNamesInInitializers(clazz, initializers, analyzer, fieldNames, enumFields);
-		}
+	void readCache(IndexCacheReader in) throws IOException {
+		IndexCacheReader.Reader<Set<String>> namesReader = i -> {
+			Set<String> names = new HashSet<>();
+			i.readCollection(names, IndexCacheReader::readString);
+			return names;
+		};
+
+		in.readMap(this.usedNamesByClass, IndexCacheReader::readString, namesReader);
+		in.readMap(this.duplicatedNamesByClass, IndexCacheReader::readString, namesReader);
+		in.readMap(this.linkedFields, IndexCacheReader::readField, IndexCacheReader::readField);
+		in.readMap(this.fieldNames, IndexCacheReader::readField, IndexCacheReader::readString);
+	}
 
-		// Insert linked names
-		for (FieldEntry linked : this.linkedFields.keySet()) {
+	/**
+	 * Inserts the names of the fields linked to fields from other classes, once every class has been visited.
+	 * The linked names are only inserted in the returned names, so the links are resolved again when classes are visited again.
+	 * The links are resolved class by class, sorted by name, so the same field keeps a conflicting name
+	 * whether the classes were all visited at once or some were {@linkplain #removeClasses removed} and visited again.
+	 *
+	 * @return the names of all the fields
+	 */
+	public Map<FieldEntry, String> findNames() {
+		Map<FieldEntry, String> fieldNames = new HashMap<>(this.fieldNames);
+		Map<String, Set<String>> usedNamesByClass = new HashMap<>();
+		Map<String, Set<String>> duplicatedNamesByClass = new HashMap<>();
+
+		// Insert linked names, the sort is stable so the links of a class stay in the visiting order
+		List<FieldEntry> links = new ArrayList<>(this.linkedFields.keySet());
+		links.sort(Comparator.comparing(field -> field.getParent().getFullName()));
+		for (FieldEntry linked : links) {
 			FieldEntry target = this.followFieldLink(linked, fieldNames);
 			if (target == null) {
 				continue;
@@ -145,8 +233,8 @@ public class ConstantFieldNameFinder implements Opcodes {
 			}
 
 			String clazz = linked.getParent().getFullName();
-			Set<String> usedNames = this.usedNamesByClass.computeIfAbsent(clazz, s -> new HashSet<>());
-			Set<String> duplicatedNames = this.duplicatedNamesByClass.computeIfAbsent(clazz, s -> new HashSet<>());
+			Set<String> usedNames = usedNamesByClass.computeIfAbsent(clazz, c -> new HashSet<>(this.usedNamesByClass.getOrDefault(c, Set.of())));
+			Set<String> duplicatedNames = duplicatedNamesByClass.computeIfAbsent(clazz, c -> new HashSet<>(this.duplicatedNamesByClass.getOrDefault(c, Set.of())));
 			if (!duplicatedNames.contains(name) && usedNames.add(name)) {
 				fieldNames.put(linked, name);
 			} else {
@@ -158,12 +246,19 @@ public class ConstantFieldNameFinder implements Opcodes {
 		return fieldNames;
 	}
 
-	private void findNamesInInitializers(String clazz, List<MethodNode> initializers, Analyzer<SourceValue> analyzer, Map<FieldEntry, String> fieldNames, Set<String> enumFields) throws AnalyzerException {
-		var usedNames = this.usedNamesByClass.computeIfAbsent(clazz, s -> new HashSet<>());
-		var duplicatedNames = this.duplicatedNamesByClass.computeIfAbsent(clazz, s -> new HashSet<>());
+	void findNamesInInitializers(String clazz, List<MethodNode> initializers, Set<String> enumFields, MethodAnalysisCache analysisCache, EntryPool entryPool) {
+		Set<String> usedNames = new HashSet<>();
+		Set<String> duplicatedNames = new HashSet<>();
+		boolean hasLinkedFields = false;
 
 		for (var initializer : initializers) {
-			var frames = analyzer.analyze(clazz, initializer);
+			StackSources sources;
+			try {
+				sources = analysisCache.getStackSources(clazz, initializer);
+			} catch (AnalyzerException e) {
+				continue; // Reported by the analysis cache, the other initializers may still name fields
+			}
+
 			var instructions = initializer.instructions;
 
 			for (int i = 1; i < instructions.size(); i++) {
@@ -189,15 +284,16 @@ public class ConstantFieldNameFinder implements Opcodes {
 				}
 
 				// Search for a name within the frame for the invocation instruction
-				String name = AsmUtil.searchStringCstInStack(instructions, invokeInsn, frames);
+				String name = AsmUtil.searchStringCstInStack(instructions, invokeInsn, sources);
 
-				FieldEntry fieldEntry = fieldFromInsn(putStatic);
+				FieldEntry fieldEntry = fieldFromInsn(putStatic, entryPool);
 				if (name == null) {
 					// If we couldn't find a name, try to link this field to one from another class instead
-					FieldInsnNode otherFieldInsn = AsmUtil.searchStaticFieldReferenceInStack(instructions, invokeInsn, frames, clazz);
+					FieldInsnNode otherFieldInsn = AsmUtil.searchStaticFieldReferenceInStack(instructions, invokeInsn, sources, clazz);
 
 					if (otherFieldInsn != null) {
-						this.linkedFields.put(fieldEntry, fieldFromInsn(otherFieldInsn));
+						this.linkedFields.put(fieldEntry, fieldFromInsn(otherFieldInsn, entryPool));
+						hasLinkedFields = true;
 					}
 
 					continue; // Done with the current putStatic
@@ -211,12 +307,19 @@ public class ConstantFieldNameFinder implements Opcodes {
 				}
 
 				if (!duplicatedNames.contains(fieldName) && usedNames.add(fieldName)) {
-					fieldNames.put(fieldEntry, fieldName);
+					this.fieldNames.put(fieldEntry, fieldName);
 				} else {
 					duplicatedNames.add(fieldName);
-					Logger.warn("Duplicate field name \"{}\" (\"{}\") for field {}", fieldName, name, fieldEntry);
+					this.warnDuplicateName(new DuplicateName(fieldName, name, fieldEntry));
 				}
 			}
 		}
+
+		if (hasLinkedFields) {
+			this.usedNamesByClass.put(clazz, usedNames);
+			this.duplicatedNamesByClass.put(clazz, duplicatedNames);
+		}
 	}
+
+	private record DuplicateName(String fieldName, String name, FieldEntry field) { }
 }
@@ -19,25 +19,31 @@ package org.quiltmc.enigma_plugin.index.simple_type_single;
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.JarIndexerService;
-import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.CacheableIndex;
 import org.quiltmc.enigma_plugin.index.Index;
+import org.quiltmc.enigma_plugin.index.ParseDepth;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleTypeFieldNamesRegistry.Inherit;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
 import org.quiltmc.enigma_plugin.util.Descriptors;
+import org.quiltmc.enigma_plugin.util.LruMap;
+import org.quiltmc.enigma_plugin.util.EntryPool;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
@@ -56,11 +62,17 @@ import static org.quiltmc.enigma_plugin.util.StringUtil.getObjectTypeOrNull;
  * Index of fields/local variables that whose names can be derived from their types and which
  * are entirely unique within their context (no other fields/local vars in the same scope have the same type).
  */
-public class SimpleSubtypeSingleIndex extends Index {
+public class SimpleSubtypeSingleIndex extends Index implements CacheableIndex {
+	private static final int FIELD_CACHE_SIZE = 256;
+
 	private final Map<ClassEntry, Map<LocalVariableEntry, SubtypeEntry>> paramsByType = new HashMap<>();
 	private final Map<ClassEntry, Map<FieldEntry, FieldInfo>> fieldsByType = new HashMap<>();
-	private final Map<ClassNode, FieldBuilders> fieldCacheByParent = new HashMap<>();
+	// Classes are usually visited close to their inner classes, so only the recently collected fields are kept
+	private final Map<String, FieldBuilders> fieldCacheByParent = new LruMap<>(FIELD_CACHE_SIZE);
+	// The entries of the types, resolved through their ancestors, including the types without any entry
+	private final Map<String, Optional<SubtypeEntry>> resolvedEntries = new HashMap<>();
 	private SimpleTypeFieldNamesRegistry registry;
+	private Path registryPath;
 
 	private InheritanceIndex inheritance;
 
@@ -79,9 +91,11 @@ public class SimpleSubtypeSingleIndex extends Index {
 	@Override
 	public void setIndexingContext(Set<String> classes, JarIndex jarIndex) {
 		this.inheritance = jarIndex.getIndex(InheritanceIndex.class);
+		this.resolvedEntries.clear();
 	}
 
 	private void loadRegistry(Path path) {
+		this.registryPath = path;
 		if (path == null) {
 			this.registry = null;
 			return;
@@ -118,23 +132,66 @@ public class SimpleSubtypeSingleIndex extends Index {
 	@Override
 	public void onIndexingEnded() {
 		this.fieldCacheByParent.clear();
+		this.resolvedEntries.clear();
+	}
+
+	@Override
+	public void reset() {
+		this.paramsByType.clear();
+		this.fieldsByType.clear();
+		this.fieldCacheByParent.clear();
+		this.resolvedEntries.clear();
+	}
+
+	@Override
+	public ParseDepth getParseDepth() {
+		return ParseDepth.MEMBERS;
+	}
+
+	@Override
+	public void writeCacheKey(DataOutput out) throws IOException {
+		byte[] registry = Files.readAllBytes(this.registryPath);
+		out.writeInt(registry.length);
+		out.write(registry);
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.paramsByType, IndexCacheWriter::writeClass, (o, params) -> o.writeMap(params, IndexCacheWriter::writeLocal, SubtypeEntry::write));
+		out.writeMap(this.fieldsByType, IndexCacheWriter::writeClass, (o, fields) -> o.writeMap(fields, IndexCacheWriter::writeField, (o2, info) -> {
+			SubtypeEntry.write(o2, info.entry());
+			o2.writeBoolean(info.isConstant());
+		}));
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.paramsByType, IndexCacheReader::readClass, i -> {
+			Map<LocalVariableEntry, SubtypeEntry> params = new HashMap<>();
+			i.readMap(params, IndexCacheReader::readLocal, SubtypeEntry::read);
+			return params;
+		});
+		in.readMap(this.fieldsByType, IndexCacheReader::readClass, i -> {
+			Map<FieldEntry, FieldInfo> fields = new HashMap<>();
+			i.readMap(fields, IndexCacheReader::readField, i2 -> new FieldInfo(SubtypeEntry.read(i2), i2.readBoolean()));
+			return fields;
+		});
 	}
 
 	@Override
 	public void visitClassNode(ClassProvider provider, ClassNode node) {
 		if (!this.isEnabled()) return;
 
-		var parentEntry = new ClassEntry(node.name);
+		var parentEntry = this.getEntryPool().classEntry(node.name);
 
-		this.collectMatchingFields(provider, node, parentEntry).build().forEach((type, fields) -> {
+		this.collectMatchingFields(provider, node, parentEntry).build(this.getEntryPool()).forEach((type, fields) -> {
 			this.fieldsByType.computeIfAbsent(type, ignored -> new HashMap<>()).putAll(fields);
 		});
 
 		for (var method : node.methods) {
 			if (method.parameters == null) continue;
 
-			var methodDescriptor = new MethodDescriptor(method.desc);
-			var methodEntry = new MethodEntry(parentEntry, method.name, methodDescriptor);
+			var methodEntry = this.getEntryPool().methodEntry(parentEntry, method.name, method.desc);
 			var parameters = Descriptors.getParameters(method);
 
 			// Count the times a type is used in the descriptor
@@ -157,28 +214,28 @@ public class SimpleSubtypeSingleIndex extends Index {
 					.collect(Collectors.toSet());
 
 			this.collectMatchingParameters(provider, method, methodEntry, bannedTypes, parameters).forEach((param, builder) -> {
-				this.paramsByType.computeIfAbsent(new ClassEntry(builder.type()), ignored -> new HashMap<>()).put(param, builder.entry());
+				this.paramsByType.computeIfAbsent(this.getEntryPool().classEntry(builder.type()), ignored -> new HashMap<>()).put(param, builder.entry());
 			});
 		}
 	}
 
 	private FieldBuilders collectMatchingFields(ClassProvider classProvider, ClassNode classNode, ClassEntry parentEntry) {
-		var existing = this.fieldCacheByParent.get(classNode);
+		var existing = this.fieldCacheByParent.get(classNode.name);
 
 		if (existing != null) return existing;
 
 		var builders = FieldBuilders.of();
 
-		for (var field : classNode.fields) {
-			// Collect names from the outer class as initial context
-			if (classNode.outerClass != null) {
-				ClassNode outerClass = classProvider.get(classNode.outerClass);
+		// Collect names from the outer class as initial context
+		if (classNode.outerClass != null && !classNode.fields.isEmpty()) {
+			ClassNode outerClass = classProvider.get(classNode.outerClass);
 
-				if (outerClass != null) {
-					builders.merge(this.collectMatchingFields(classProvider, outerClass, new ClassEntry(outerClass.name)));
-				}
+			if (outerClass != null) {
+				builders.merge(this.collectMatchingFields(classProvider, outerClass, this.getEntryPool().classEntry(outerClass.name)));
 			}
+		}
 
+		for (var field : classNode.fields) {
 			String type = getObjectTypeOrNull(field.desc);
 			if (type == null) {
 				continue;
@@ -191,12 +248,12 @@ public class SimpleSubtypeSingleIndex extends Index {
 				if (destination.containsKey(type)) {
 					destination.put(type, FieldBuilderEntry.DUPLICATE);
 				} else {
-					destination.put(type, new FieldBuilderEntry(parentEntry, field, type, entry, isConstant));
+					destination.put(type, new FieldBuilderEntry(this.getEntryPool().fieldEntry(parentEntry, field.name, field.desc), type, entry, isConstant));
 				}
 			}
 		}
 
-		this.fieldCacheByParent.put(classNode, builders);
+		this.fieldCacheByParent.put(classNode.name, builders);
 
 		return builders;
 	}
@@ -226,7 +283,7 @@ public class SimpleSubtypeSingleIndex extends Index {
 			var entry = this.getEntry(classProvider, type);
 			if (entry != null) {
 				boolean isStatic = AsmUtil.matchAccess(parentNode, ACC_STATIC);
-				matchingParameters.put(new LocalVariableEntry(parentEntry, lvtIndex + (isStatic ? 0 : 1)), new ParamBuilderEntry(entry, type));
+				matchingParameters.put(this.getEntryPool().localEntry(parentEntry, lvtIndex + (isStatic ? 0 : 1)), new ParamBuilderEntry(entry, type));
 			}
 		}
 
@@ -235,16 +292,20 @@ public class SimpleSubtypeSingleIndex extends Index {
 
 	@Nullable
 	private SubtypeEntry getEntry(ClassProvider classProvider, String type) {
+		return this.resolvedEntries.computeIfAbsent(type, t -> this.resolveEntry(classProvider, t)).orElse(null);
+	}
+
+	private Optional<SubtypeEntry> resolveEntry(ClassProvider classProvider, String type) {
 		if (this.registry.getEntry(type) != null) {
 			// do not propose names for the super type
 			// this also skips any type with a simple type name
-			return null;
+			return Optional.empty();
 		}
 
 		final ClassNode typeClass = classProvider.get(type);
 		if (typeClass == null || AsmUtil.matchAccess(typeClass, ACC_ABSTRACT) || AsmUtil.matchAccess(typeClass, ACC_INTERFACE)) {
 			// skip non-concrete types
-			return null;
+			return Optional.empty();
 		}
 
 		// Check all parent classes for an entry. This goes in order of super/interface, supersuper/interfacesuper, etc
@@ -264,13 +325,41 @@ public class SimpleSubtypeSingleIndex extends Index {
 
 					return Stream.empty();
 				})
-				.findFirst()
-				.orElse(null);
+				.findFirst();
 	}
 
 	public record FieldInfo(SubtypeEntry entry, boolean isConstant) { }
 
-	public record SubtypeEntry(String type, Renamer renamer) { }
+	public record SubtypeEntry(String type, Renamer renamer) {
+		static void write(IndexCacheWriter out, SubtypeEntry entry) throws IOException {
+			out.writeString(entry.type);
+
+			if (entry.renamer instanceof Renamer.Truncate truncate) {
+				out.writeVarInt(0);
+				out.writeString(truncate.suffix());
+			} else if (entry.renamer instanceof Renamer.Transform transform) {
+				out.writeVarInt(1);
+				out.writeString(transform.pattern().pattern());
+				out.writeVarInt(transform.pattern().flags());
+				out.writeString(transform.replacement());
+			}
+		}
+
+		static SubtypeEntry read(IndexCacheReader in) throws IOException {
+			String type = in.readString();
+
+			Renamer renamer = switch (in.readVarInt()) {
+				case 0 -> new Renamer.Truncate(in.readString());
+				case 1 -> {
+					Pattern pattern = Pattern.compile(in.readString(), in.readVarInt());
+					yield new Renamer.Transform(pattern, in.readString());
+				}
+				default -> throw new IOException("Unknown subtype renamer for type " + type);
+			};
+
+			return new SubtypeEntry(type, renamer);
+		}
+	}
 
 	public sealed interface Renamer {
 		Optional<String> rename(String original);
@@ -304,8 +393,11 @@ public class SimpleSubtypeSingleIndex extends Index {
 
 	private record ParamBuilderEntry(SubtypeEntry entry, String type) { }
 
-	private record FieldBuilderEntry(ClassEntry parent, FieldNode field, String type, SubtypeEntry subtypeEntry, boolean isConstant) {
-		static final FieldBuilderEntry DUPLICATE = new FieldBuilderEntry(null, null, null, null, false);
+	/**
+	 * A field matching a registry entry. Only the entry of the field is kept, so the cached entries don't retain the class nodes.
+	 */
+	private record FieldBuilderEntry(FieldEntry field, String type, SubtypeEntry subtypeEntry, boolean isConstant) {
+		static final FieldBuilderEntry DUPLICATE = new FieldBuilderEntry(null, null, null, false);
 
 		static boolean isNotDuplicate(FieldBuilderEntry entry) {
 			return entry != DUPLICATE;
@@ -314,10 +406,6 @@ public class SimpleSubtypeSingleIndex extends Index {
 		FieldInfo toInfo() {
 			return new FieldInfo(this.subtypeEntry, this.isConstant);
 		}
-
-		FieldEntry toEntry() {
-			return new FieldEntry(this.parent, this.field.name, new TypeDescriptor(this.field.desc));
-		}
 	}
 
 	private record FieldBuilders(Map<String, FieldBuilderEntry> fieldsByType, Map<String, FieldBuilderEntry> constantsByType) {
@@ -330,14 +418,14 @@ public class SimpleSubtypeSingleIndex extends Index {
 			this.constantsByType.putAll(other.constantsByType);
 		}
 
-		Map<ClassEntry, Map<FieldEntry, FieldInfo>> build() {
+		Map<ClassEntry, Map<FieldEntry, FieldInfo>> build(EntryPool entryPool) {
 			return Stream
 				.concat(this.fieldsByType.values().stream(), this.constantsByType.values().stream())
 				.filter(FieldBuilderEntry::isNotDuplicate)
 				.collect(Collectors.groupingBy(
-					builder -> new ClassEntry(builder.type),
+					builder -> entryPool.classEntry(builder.type),
 					Collectors.toMap(
-						FieldBuilderEntry::toEntry,
+						FieldBuilderEntry::field,
 						FieldBuilderEntry::toInfo
 					)
 				));
@@ -18,6 +18,7 @@ package org.quiltmc.enigma_plugin.index.simple_type_single;
 
 import org.quiltmc.enigma.util.Result;
 import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma_plugin.jfr.RegistryReadEvent;
 import org.quiltmc.enigma_plugin.util.CasingUtil;
 import org.quiltmc.parsers.json.JsonReader;
 import org.quiltmc.parsers.json.JsonToken;
@@ -81,6 +82,9 @@ public final class SimpleTypeFieldNamesRegistry {
 	}
 
 	private void read() {
+		var event = new RegistryReadEvent();
+		event.begin();
+
 		try (var reader = JsonReader.json5(this.path)) {
 			if (reader.peek() != JsonToken.BEGIN_OBJECT) {
 				return;
@@ -172,6 +176,10 @@ public final class SimpleTypeFieldNamesRegistry {
 			reader.endObject();
 		} catch (IOException e) {
 			Logger.error(e, "Failed to read simple type field names registry.");
+		} finally {
+			event.path = this.path.toString();
+			event.types = this.entries.size();
+			event.commit();
 		}
 	}
 
@@ -22,26 +22,31 @@ import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.JarIndexerService;
-import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
-import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.ParameterNode;
 import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.CacheableIndex;
 import org.quiltmc.enigma_plugin.index.Index;
+import org.quiltmc.enigma_plugin.index.ParseDepth;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
 import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleTypeFieldNamesRegistry.Inherit;
 import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleTypeFieldNamesRegistry.Name;
 import org.quiltmc.enigma_plugin.util.AsmUtil;
 import org.quiltmc.enigma_plugin.util.Descriptors;
+import org.quiltmc.enigma_plugin.util.LruMap;
 import org.tinylog.Logger;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -58,14 +63,20 @@ import static org.quiltmc.enigma_plugin.util.StringUtil.getObjectTypeOrNull;
  * Index of fields/local variables that are of a rather simple type (as-in easy to guess the variable name) and which
  * they are entirely unique within their context (no other fields/local vars in the same scope have the same type).
  */
-public class SimpleTypeSingleIndex extends Index {
+public class SimpleTypeSingleIndex extends Index implements CacheableIndex {
+	private static final int FIELD_CACHE_SIZE = 256;
+
 	private final Map<LocalVariableEntry, String> parameters = new HashMap<>();
 	private final Map<LocalVariableEntry, List<String>> parameterFallbacks = new HashMap<>();
 	private final Map<FieldEntry, String> fields = new HashMap<>();
-	private final Map<ClassNode, Map<String, FieldBuildingEntry>> fieldCache = new HashMap<>();
+	// Classes are usually visited close to their inner classes, so only the recently collected fields are kept
+	private final Map<String, Map<String, FieldBuildingEntry>> fieldCache = new LruMap<>(FIELD_CACHE_SIZE);
 	private final Set<String> unverifiedTypes = new HashSet<>();
+	// The entries of the types, resolved through their ancestors, including the types without any entry
+	private final Map<String, Optional<SimpleTypeFieldNamesRegistry.Entry>> resolvedEntries = new HashMap<>();
 
 	private SimpleTypeFieldNamesRegistry registry;
+	private Path registryPath;
 	private InheritanceIndex inheritance;
 	private VerificationLevel verificationLevel = VerificationLevel.DEFAULT;
 
@@ -104,18 +115,23 @@ public class SimpleTypeSingleIndex extends Index {
 	@Override
 	public void setIndexingContext(Set<String> classes, JarIndex jarIndex) {
 		this.inheritance = jarIndex.getIndex(InheritanceIndex.class);
+		this.resolvedEntries.clear();
 	}
 
 	private void loadRegistry(Path path) {
+		this.registryPath = path;
 		if (path == null) {
 			this.registry = null;
 			return;
 		}
 
 		this.registry = SimpleTypeFieldNamesRegistry.readFrom(path);
+		this.resetUnverifiedTypes();
+	}
 
+	private void resetUnverifiedTypes() {
 		this.unverifiedTypes.clear();
-		if (this.verificationLevel != VerificationLevel.NONE) {
+		if (this.registry != null && this.verificationLevel != VerificationLevel.NONE) {
 			this.registry.streamTypes().forEach(this.unverifiedTypes::add);
 		}
 	}
@@ -171,28 +187,73 @@ public class SimpleTypeSingleIndex extends Index {
 	@Override
 	public void onIndexingEnded() {
 		this.fieldCache.clear();
+		this.resolvedEntries.clear();
+	}
+
+	@Override
+	public void reset() {
+		this.parameters.clear();
+		this.parameterFallbacks.clear();
+		this.fields.clear();
+		this.fieldCache.clear();
+		this.resolvedEntries.clear();
+		this.resetUnverifiedTypes();
+	}
+
+	@Override
+	public ParseDepth getParseDepth() {
+		return ParseDepth.MEMBERS;
+	}
+
+	@Override
+	public void writeCacheKey(DataOutput out) throws IOException {
+		out.writeUTF(this.verificationLevel.name());
+
+		byte[] registry = Files.readAllBytes(this.registryPath);
+		out.writeInt(registry.length);
+		out.write(registry);
+	}
+
+	@Override
+	public void writeCache(IndexCacheWriter out) throws IOException {
+		out.writeMap(this.parameters, IndexCacheWriter::writeLocal, IndexCacheWriter::writeString);
+		out.writeMap(this.parameterFallbacks, IndexCacheWriter::writeLocal, (o, fallbacks) -> o.writeCollection(fallbacks, IndexCacheWriter::writeString));
+		out.writeMap(this.fields, IndexCacheWriter::writeField, IndexCacheWriter::writeString);
+		out.writeCollection(this.unverifiedTypes, IndexCacheWriter::writeString);
+	}
+
+	@Override
+	public void readCache(IndexCacheReader in) throws IOException {
+		in.readMap(this.parameters, IndexCacheReader::readLocal, IndexCacheReader::readString);
+		in.readMap(this.parameterFallbacks, IndexCacheReader::readLocal, i -> {
+			List<String> fallbacks = new ArrayList<>();
+			i.readCollection(fallbacks, IndexCacheReader::readString);
+			return List.copyOf(fallbacks);
+		});
+		in.readMap(this.fields, IndexCacheReader::readField, IndexCacheReader::readString);
+
+		this.unverifiedTypes.clear();
+		in.readCollection(this.unverifiedTypes, IndexCacheReader::readString);
 	}
 
 	@Override
 	public void visitClassNode(ClassProvider provider, ClassNode node) {
 		if (!this.isEnabled()) return;
 
-		var parentEntry = new ClassEntry(node.name);
+		var parentEntry = this.getEntryPool().classEntry(node.name);
 
 		this.unverifiedTypes.remove(node.name);
 
 		this.collectMatchingFields(provider, node, parentEntry).forEach((name, entry) -> {
 			if (!entry.isNull()) {
-				var fieldEntry = new FieldEntry(entry.parent, entry.node().name, new TypeDescriptor(entry.node().desc));
-				this.fields.put(fieldEntry, name);
+				this.fields.put(entry.field(), name);
 			}
 		});
 
 		for (var method : node.methods) {
 			if (method.parameters == null) continue;
 
-			var methodDescriptor = new MethodDescriptor(method.desc);
-			var methodEntry = new MethodEntry(parentEntry, method.name, methodDescriptor);
+			var methodEntry = this.getEntryPool().methodEntry(parentEntry, method.name, method.desc);
 			var parameters = Descriptors.getParameters(method);
 
 			// Count the times a type is used in the descriptor
@@ -218,7 +279,7 @@ public class SimpleTypeSingleIndex extends Index {
 				if (!param.isNull()) {
 					boolean isStatic = AsmUtil.matchAccess(method, ACC_STATIC);
 					int index = param.index() + (isStatic ? 0 : 1);
-					var paramEntry = new LocalVariableEntry(methodEntry, index);
+					var paramEntry = this.getEntryPool().localEntry(methodEntry, index);
 					this.parameters.put(paramEntry, name);
 					this.parameterFallbacks.put(paramEntry, param.entry.fallback().stream().map(Name::local).toList());
 				}
@@ -227,21 +288,22 @@ public class SimpleTypeSingleIndex extends Index {
 	}
 
 	private Map<String, FieldBuildingEntry> collectMatchingFields(ClassProvider classProvider, ClassNode classNode, ClassEntry parent) {
-		var existing = this.fieldCache.get(classNode);
+		var existing = this.fieldCache.get(classNode.name);
 
 		if (existing != null) return existing;
 
 		var knownFields = new HashMap<String, FieldBuildingEntry>();
-		for (var field : classNode.fields) {
-			// Collect names from the outer class as initial context
-			if (classNode.outerClass != null) {
-				ClassNode outerClass = classProvider.get(classNode.outerClass);
 
-				if (outerClass != null) {
-					knownFields.putAll(this.collectMatchingFields(classProvider, outerClass, new ClassEntry(outerClass.name)));
-				}
+		// Collect names from the outer class as initial context
+		if (classNode.outerClass != null && !classNode.fields.isEmpty()) {
+			ClassNode outerClass = classProvider.get(classNode.outerClass);
+
+			if (outerClass != null) {
+				knownFields.putAll(this.collectMatchingFields(classProvider, outerClass, this.getEntryPool().classEntry(outerClass.name)));
 			}
+		}
 
+		for (var field : classNode.fields) {
 			String type = this.verifyTypeOrNull(field.desc);
 			if (type == null) continue;
 
@@ -263,7 +325,7 @@ public class SimpleTypeSingleIndex extends Index {
 					Name foundFallback = entry.findFallback(fallback -> !knownFields.containsKey(nameGetter.apply(fallback)));
 
 					if (foundFallback != null) {
-						knownFields.put(nameGetter.apply(foundFallback), new FieldBuildingEntry(parent, field, foundFallback, entry));
+						knownFields.put(nameGetter.apply(foundFallback), new FieldBuildingEntry(this.getEntryPool().fieldEntry(parent, field.name, field.desc), foundFallback, entry));
 
 						// If the existing entry is exclusive, remove it and if possible replace it with one of its fallbacks
 						if (!existingEntry.isNull() && existingEntry.entry().exclusive()) {
@@ -275,7 +337,7 @@ public class SimpleTypeSingleIndex extends Index {
 
 							if (replacement != null) {
 								knownFields.put(nameGetter.apply(replacement),
-										new FieldBuildingEntry(parent, existingEntry.node(), replacement, existingEntry.entry())
+										new FieldBuildingEntry(existingEntry.field(), replacement, existingEntry.entry())
 								);
 							}
 						}
@@ -285,12 +347,12 @@ public class SimpleTypeSingleIndex extends Index {
 					}
 				} else {
 					// Another field with the name doesn't exist, proceed as usual
-					knownFields.put(nameGetter.apply(entry.name()), new FieldBuildingEntry(parent, field, entry.name(), entry));
+					knownFields.put(nameGetter.apply(entry.name()), new FieldBuildingEntry(this.getEntryPool().fieldEntry(parent, field.name, field.desc), entry.name(), entry));
 				}
 			}
 		}
 
-		this.fieldCache.put(classNode, knownFields);
+		this.fieldCache.put(classNode.name, knownFields);
 
 		return knownFields;
 	}
@@ -349,11 +411,15 @@ public class SimpleTypeSingleIndex extends Index {
 	}
 
 	private SimpleTypeFieldNamesRegistry.@Nullable Entry getEntry(String type) {
+		return this.resolvedEntries.computeIfAbsent(type, this::resolveEntry).orElse(null);
+	}
+
+	private Optional<SimpleTypeFieldNamesRegistry.Entry> resolveEntry(String type) {
 		// Default to returning this if it is specified
 		var entry = this.registry.getEntry(type);
 
 		if (entry != null) {
-			return entry;
+			return Optional.of(entry);
 		}
 
 		// Check all parent classes for an entry. This goes in order of super/interface, supersuper/interfacesuper, etc
@@ -365,8 +431,7 @@ public class SimpleTypeSingleIndex extends Index {
 				.filter(ancestorEntry -> ancestorEntry.inherit() == Inherit.Direct.INSTANCE)
 				.stream()
 			)
-			.findFirst()
-			.orElse(null);
+			.findFirst();
 	}
 
 	@Nullable
@@ -381,13 +446,16 @@ public class SimpleTypeSingleIndex extends Index {
 		return type;
 	}
 
-	private record FieldBuildingEntry(ClassEntry parent, FieldNode node, Name name, SimpleTypeFieldNamesRegistry.Entry entry) {
+	/**
+	 * A field matching a registry entry. Only the entry of the field is kept, so the cached entries don't retain the class nodes.
+	 */
+	private record FieldBuildingEntry(FieldEntry field, Name name, SimpleTypeFieldNamesRegistry.Entry entry) {
 		static FieldBuildingEntry createNull(SimpleTypeFieldNamesRegistry.Entry entry) {
-			return new FieldBuildingEntry(null, null, null, entry);
+			return new FieldBuildingEntry(null, null, entry);
 		}
 
 		boolean isNull() {
-			return this.node == null;
+			return this.field == null;
 		}
 	}
 
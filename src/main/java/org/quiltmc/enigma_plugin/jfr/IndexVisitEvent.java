@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A batch of classes visited by an index. The event spans the whole batch, during which the classes are also visited
+ * by the other indexes, so the time actually spent in the index is recorded separately.
+ */
+@Name("org.quiltmc.enigma_plugin.IndexVisit")
+@Label("Index Visit")
+@Description("A batch of classes visited by an index")
+@Category({"Quilt Enigma Plugin", "Indexing"})
+public class IndexVisitEvent extends Event {
+	@Label("Index")
+	public String index;
+
+	@Label("Classes")
+	public int classes;
+
+	@Label("Methods")
+	public int methods;
+
+	@Label("Index Time")
+	@Description("Time spent in the index while visiting the classes")
+	@Timespan
+	public long indexTime;
+}
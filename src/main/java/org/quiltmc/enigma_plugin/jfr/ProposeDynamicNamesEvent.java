@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The names proposed by a name proposer after an entry has been remapped.
+ */
+@Name("org.quiltmc.enigma_plugin.ProposeDynamicNames")
+@Label("Propose Dynamic Names")
+@Description("The names proposed by a name proposer after an entry has been remapped")
+@Category({"Quilt Enigma Plugin", "Proposal"})
+public class ProposeDynamicNamesEvent extends Event {
+	@Label("Proposer")
+	public String proposer;
+
+	@Label("Entry Type")
+	@Description("Type of the remapped entry, missing when the mappings were loaded")
+	public String entryType;
+}
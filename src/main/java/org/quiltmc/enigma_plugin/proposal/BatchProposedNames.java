@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.proposal;
+
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The names proposed for a batch of changes, given to the proposers of each change.
+ * The proposers see the names proposed for the previous changes, like they see them in the remapper when proposing for each change on its own,
+ * but only the proposals of the current change keep the following proposers from naming an entry,
+ * so the names proposed for a change still override the ones proposed for the previous changes.
+ */
+class BatchProposedNames<K extends Entry<?>> extends HashMap<K, EntryMapping> {
+	// The entry keys are declared with a type variable, Entry names Map.Entry in the body
+	private final Set<K> changeEntries = new HashSet<>();
+
+	/**
+	 * Starts proposing names for the next change of the batch.
+	 */
+	void startChange() {
+		this.changeEntries.clear();
+	}
+
+	/**
+	 * {@return whether a name was proposed for the given entry during the current change}
+	 */
+	boolean isProposedByChange(Object entry) {
+		return this.changeEntries.contains(entry);
+	}
+
+	@Override
+	public EntryMapping put(K key, EntryMapping value) {
+		this.changeEntries.add(key);
+		return super.put(key, value);
+	}
+}
@@ -42,6 +42,11 @@ public class ConflictFixProposer extends NameProposer {
 		this.index = jarIndex.getIndex(SimpleTypeSingleIndex.class);
 	}
 
+	@Override
+	public boolean isPostProcessor() {
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
 		for (Map.Entry<Entry<?>, EntryMapping> entry : Set.copyOf(mappings.entrySet())) {
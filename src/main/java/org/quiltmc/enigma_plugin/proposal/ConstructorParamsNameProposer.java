@@ -42,6 +42,13 @@ public class ConstructorParamsNameProposer extends NameProposer {
 	public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
 	}
 
+	@Override
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		graph.addEntries(this.index.getLinkedFields());
+		graph.addEntries(this.index.getParameters());
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
 		if (obfEntry instanceof FieldEntry field && this.index.isFieldLinked(field)) {
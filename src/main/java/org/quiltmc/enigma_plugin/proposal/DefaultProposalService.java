@@ -26,7 +26,7 @@ import org.quiltmc.enigma_plugin.index.simple_type_single.SimpleTypeSingleIndex;
 
 public class DefaultProposalService extends NameProposerService {
 	public DefaultProposalService(JarIndexer indexer, EnigmaServiceContext<NameProposalService> context) {
-		super();
+		super(context);
 		this.addIfEnabled(context, indexer, Arguments.DISABLE_RECORDS, RecordComponentNameProposer::new);
 		this.addIfEnabled(context, indexer, Arguments.DISABLE_CONSTANT_FIELDS, ConstantFieldNameProposer::new);
 		this.addIfEnabled(context, Arguments.DISABLE_EQUALS, EqualsNameProposer::new);
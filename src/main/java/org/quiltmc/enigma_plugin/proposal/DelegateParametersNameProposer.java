@@ -100,6 +100,13 @@ public class DelegateParametersNameProposer extends NameProposer {
 		}
 	}
 
+	@Override
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		// Removing the name of any parameter proposes a name for it again, even without delegate links
+		graph.addEntryType(LocalVariableEntry.class);
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
 		// Mappings loaded
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.proposal;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the renamed entries to the proposers the dynamic proposals of which depend on them,
+ * so that renaming an entry only runs the proposers it can affect.
+ * Built once the jar is indexed, from the dependencies each proposer declares in {@link NameProposer#addDynamicDependencies}.
+ *
+ * <p>Proposers which don't declare their dependencies run for every renamed entry.
+ * The proposers are always returned in registration order, so that the first proposal of an entry still wins.
+ */
+public final class DynamicProposalGraph {
+	private final List<NameProposer> proposers;
+	private final Map<Entry<?>, BitSet> proposersByEntry;
+	private final Map<Class<?>, BitSet> proposersByEntryType;
+	private final BitSet untargetedProposers;
+
+	private DynamicProposalGraph(List<NameProposer> proposers, Map<Entry<?>, BitSet> proposersByEntry, Map<Class<?>, BitSet> proposersByEntryType, BitSet untargetedProposers) {
+		this.proposers = proposers;
+		this.proposersByEntry = proposersByEntry;
+		this.proposersByEntryType = proposersByEntryType;
+		this.untargetedProposers = untargetedProposers;
+	}
+
+	public static DynamicProposalGraph build(List<NameProposer> proposers) {
+		var builder = new Builder();
+		var untargetedProposers = new BitSet(proposers.size());
+
+		for (int i = 0; i < proposers.size(); i++) {
+			builder.proposer = i;
+			if (!proposers.get(i).addDynamicDependencies(builder)) {
+				untargetedProposers.set(i);
+			}
+		}
+
+		return new DynamicProposalGraph(List.copyOf(proposers), builder.proposersByEntry, builder.proposersByEntryType, untargetedProposers);
+	}
+
+	/**
+	 * {@return the proposers to run when the given entry is renamed, in registration order}
+	 */
+	public List<NameProposer> getProposers(Entry<?> entry) {
+		var proposers = (BitSet) this.untargetedProposers.clone();
+
+		BitSet entryProposers = this.proposersByEntry.get(entry);
+		if (entryProposers != null) {
+			proposers.or(entryProposers);
+		}
+
+		this.proposersByEntryType.forEach((type, typeProposers) -> {
+			if (type.isInstance(entry)) {
+				proposers.or(typeProposers);
+			}
+		});
+
+		List<NameProposer> result = new ArrayList<>(proposers.cardinality());
+		for (int i = proposers.nextSetBit(0); i >= 0; i = proposers.nextSetBit(i + 1)) {
+			result.add(this.proposers.get(i));
+		}
+
+		return result;
+	}
+
+	/**
+	 * {@return the number of entries some proposer depends on}
+	 */
+	public int getEntryCount() {
+		return this.proposersByEntry.size();
+	}
+
+	/**
+	 * Collects the dependencies of a proposer.
+	 */
+	public static final class Builder {
+		private final Map<Entry<?>, BitSet> proposersByEntry = new HashMap<>();
+		private final Map<Class<?>, BitSet> proposersByEntryType = new LinkedHashMap<>();
+		private int proposer;
+
+		private Builder() {
+		}
+
+		/**
+		 * Runs the proposer when the given entry is renamed.
+		 */
+		public void addEntry(Entry<?> entry) {
+			this.proposersByEntry.computeIfAbsent(entry, e -> new BitSet()).set(this.proposer);
+		}
+
+		/**
+		 * Runs the proposer when any of the given entries is renamed.
+		 */
+		public void addEntries(Collection<? extends Entry<?>> entries) {
+			for (Entry<?> entry : entries) {
+				this.addEntry(entry);
+			}
+		}
+
+		/**
+		 * Runs the proposer when any entry of the given type is renamed.
+		 */
+		public void addEntryType(Class<? extends Entry<?>> type) {
+			this.proposersByEntryType.computeIfAbsent(type, t -> new BitSet()).set(this.proposer);
+		}
+	}
+}
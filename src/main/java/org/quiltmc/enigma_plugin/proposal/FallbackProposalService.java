@@ -24,7 +24,7 @@ import org.quiltmc.enigma_plugin.index.JarIndexer;
 
 public class FallbackProposalService extends NameProposerService {
 	public FallbackProposalService(JarIndexer indexer, EnigmaServiceContext<NameProposalService> context) {
-		super();
+		super(context);
 		this.addIfEnabled(context, Arguments.DISABLE_MAPPING_MERGE, () -> new MappingMergeNameProposer(context.getSingleArgument(Arguments.MERGED_MAPPING_PATH).orElse(null)));
 	}
 
@@ -58,6 +58,12 @@ public class GetterSetterNameProposer extends NameProposer {
 	public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
 	}
 
+	@Override
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		graph.addEntries(this.index.getLinkedFields());
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
 		if (obfEntry == null) {
@@ -40,6 +40,12 @@ public class LambdaParametersProposer extends NameProposer {
 	@Override
 	public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) { }
 
+	@Override
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		this.index.forEachFunctionalParam((functionalParam, lambdaParams) -> graph.addEntry(functionalParam));
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(
 			EntryRemapper remapper, Entry<?> obfEntry,
@@ -111,6 +111,12 @@ public class MappingMergePackageProposer extends NameProposer {
 		// no-op
 	}
 
+	@Override
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		graph.addEntryType(ClassEntry.class);
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
 		final EntryTree<EntryMapping> mergedMappings = MappingMergeNameProposer.getMergedMappings();
@@ -72,13 +72,22 @@ public abstract class NameProposer {
 	}
 
 	private void insertProposal(Map<Entry<?>, EntryMapping> mappings, Entry<?> entry, String name, TokenType tokenType) {
-		if (!mappings.containsKey(entry)) {
-			if (name != null) {
-				EntryMapping mapping = new EntryMapping(name, null, tokenType, this.getSourcePluginId());
-				mappings.put(entry, mapping);
-			} else {
-				mappings.put(entry, null);
-			}
+		putFirstProposal(mappings, entry, name != null ? new EntryMapping(name, null, tokenType, this.getSourcePluginId()) : null);
+	}
+
+	/**
+	 * Inserts a proposal, unless the entry already has one.
+	 * Null mappings are proposals too, they prevent the following proposers from naming the entry.
+	 * For a batch of changes, only the proposals of the current change count, so that it overrides the previous changes.
+	 *
+	 * @param mappings the proposed names
+	 * @param entry the entry to propose a name for
+	 * @param mapping the proposed mapping, or {@code null} to keep the entry from being named
+	 */
+	static void putFirstProposal(Map<Entry<?>, EntryMapping> mappings, Entry<?> entry, @Nullable EntryMapping mapping) {
+		boolean proposed = mappings instanceof BatchProposedNames<?> batch ? batch.isProposedByChange(entry) : mappings.containsKey(entry);
+		if (!proposed) {
+			mappings.put(entry, mapping);
 		}
 	}
 
@@ -91,6 +100,26 @@ public abstract class NameProposer {
 	public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
 	}
 
+	/**
+	 * {@return whether this proposer works on the names proposed by the previous proposers, rather than on the renamed entry}
+	 * When proposing names for a {@linkplain NameProposerService#getDynamicProposedNames(EntryRemapper, java.util.Collection) batch of changes},
+	 * such a proposer only runs once, over the names proposed for every change.
+	 */
+	public boolean isPostProcessor() {
+		return false;
+	}
+
+	/**
+	 * Declares the renamed entries which {@link #proposeDynamicNames} can propose names for, once the jar is indexed.
+	 * Renaming any other entry doesn't run this proposer. Loading the mappings always runs every proposer.
+	 *
+	 * @param graph the graph to add the dependencies of this proposer to
+	 * @return whether the dependencies were declared, proposers which don't declare them run for every renamed entry
+	 */
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		return false;
+	}
+
 	public EntryMapping getMappingOrNonHashed(Entry<?> entry, EntryRemapper remapper, TokenType type) {
 		return EntryUtil.getMappingOrNonHashed(entry, remapper, type, this.getSourcePluginId());
 	}
@@ -25,16 +25,35 @@ import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma_plugin.Arguments;
 import org.quiltmc.enigma_plugin.index.JarIndexer;
+import org.quiltmc.enigma_plugin.jfr.ProposeDynamicNamesEvent;
+import org.quiltmc.enigma_plugin.jfr.ProposeNamesEvent;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 public abstract class NameProposerService implements NameProposalService {
 	private final List<NameProposer> nameProposers = new ArrayList<>();
+	private final boolean parallelProposal;
+	private final boolean dynamicProposalGraphDisabled;
+	private DynamicProposalGraph dynamicProposalGraph;
+
+	protected NameProposerService(EnigmaServiceContext<NameProposalService> context) {
+		this.parallelProposal = Arguments.getBoolean(context, Arguments.PARALLEL_PROPOSAL);
+		this.dynamicProposalGraphDisabled = Arguments.getBoolean(context, Arguments.DISABLE_DYNAMIC_PROPOSAL_GRAPH);
+	}
 
 	protected void addIfEnabled(EnigmaServiceContext<NameProposalService> context, String name, Supplier<NameProposer> factory) {
 		this.addIfEnabled(context, null, name, indexer -> factory.get());
@@ -60,25 +79,184 @@ public abstract class NameProposerService implements NameProposalService {
 		this.nameProposers.add(factory.apply(indexer));
 	}
 
+	/**
+	 * {@return the proposers of this service, in the order they run}
+	 */
+	public List<NameProposer> getNameProposers() {
+		return Collections.unmodifiableList(this.nameProposers);
+	}
+
+	/**
+	 * {@return the graph of the proposers to run when an entry is renamed}
+	 * Built from the indexes, the first time names are proposed after the jar was indexed.
+	 */
+	public DynamicProposalGraph getDynamicProposalGraph() {
+		if (this.dynamicProposalGraph == null) {
+			this.dynamicProposalGraph = DynamicProposalGraph.build(this.nameProposers);
+		}
+
+		return this.dynamicProposalGraph;
+	}
+
 	@Override
 	public Map<Entry<?>, EntryMapping> getProposedNames(Enigma enigma, JarIndex index) {
+		// The jar was just indexed, the dependencies of the dynamic proposals may have changed
+		this.dynamicProposalGraph = null;
+
+		int threads = Math.min(Runtime.getRuntime().availableProcessors(), this.nameProposers.size());
+		if (this.parallelProposal && threads > 1) {
+			return this.getProposedNamesInParallel(enigma, index, threads);
+		}
+
 		HashMap<Entry<?>, EntryMapping> proposedNames = new HashMap<>();
 
 		for (NameProposer proposer : this.nameProposers) {
-			proposer.insertProposedNames(enigma, index, proposedNames);
+			insertProposedNames(proposer, enigma, index, proposedNames);
 		}
 
 		return proposedNames;
 	}
 
+	/**
+	 * Runs every proposer at the same time, each one inserting its names in its own map.
+	 * The maps are then merged in registration order with the same rule as {@link NameProposer#putFirstProposal},
+	 * which gives the same names as when the proposers insert them in turn in a shared map.
+	 * Proposers only read the finished indexes when proposing names from the jar, so they don't depend on each other.
+	 */
+	private Map<Entry<?>, EntryMapping> getProposedNamesInParallel(Enigma enigma, JarIndex index, int threads) {
+		List<Future<Map<Entry<?>, EntryMapping>>> futures = new ArrayList<>(this.nameProposers.size());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			for (NameProposer proposer : this.nameProposers) {
+				futures.add(executor.submit(() -> insertProposedNames(proposer, enigma, index, new HashMap<>())));
+			}
+
+			HashMap<Entry<?>, EntryMapping> proposedNames = new HashMap<>();
+			for (var future : futures) {
+				future.get().forEach((entry, mapping) -> NameProposer.putFirstProposal(proposedNames, entry, mapping));
+			}
+
+			return proposedNames;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while proposing names", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			} else if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Map<Entry<?>, EntryMapping> insertProposedNames(NameProposer proposer, Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> proposedNames) {
+		var event = new ProposeNamesEvent();
+		event.begin();
+
+		proposer.insertProposedNames(enigma, index, proposedNames);
+
+		event.proposer = proposer.getSourcePluginId();
+		event.proposedNames = proposedNames.size();
+		event.commit();
+		return proposedNames;
+	}
+
 	@Override
 	public Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping) {
-		HashMap<Entry<?>, EntryMapping> proposedNames = new HashMap<>();
+		return this.getDynamicProposedNames(remapper, List.of(new DynamicChange(obfEntry, oldMapping, newMapping)));
+	}
+
+	/**
+	 * Proposes names after a batch of changes, such as pasting mappings or renaming a package,
+	 * instead of proposing names for each change on its own.
+	 * A single change, as Enigma proposes names for, is a batch of one change.
+	 *
+	 * <p>This isn't part of {@link NameProposalService}, so Enigma only proposes names for one change at a time.
+	 * Callers applying a batch of changes have to call this directly, and insert the proposed names in the remapper themselves.
+	 *
+	 * <p>Changes of the same entry are merged, keeping the first old mapping and the last new mapping.
+	 * The proposers of each change are given the names proposed for the previous changes, which the remapper doesn't have yet,
+	 * and the names proposed for a change override the ones proposed for the previous changes.
+	 * {@linkplain NameProposer#isPostProcessor() Post-processors} like the conflict fixer only run once,
+	 * over the names proposed for every change, and are only given the entry and the old and new mappings
+	 * of the last change: they must look at the proposed names instead of the changed entry.
+	 *
+	 * @param remapper the remapper, with every change applied
+	 * @param changes the changes, in the order they were made
+	 * @return the proposed names
+	 */
+	public Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, Collection<DynamicChange> changes) {
+		Map<Entry<?>, DynamicChange> changesByEntry = new LinkedHashMap<>();
+		DynamicChange lastChange = null;
+
+		for (DynamicChange change : changes) {
+			DynamicChange previous = changesByEntry.remove(change.obfEntry());
+			// Moved to the end, so that the names proposed for this entry still override the ones of the previous changes
+			changesByEntry.put(change.obfEntry(), previous == null ? change : new DynamicChange(change.obfEntry(), previous.oldMapping(), change.newMapping()));
+			lastChange = change;
+		}
+
+		var proposedNames = new BatchProposedNames<Entry<?>>();
+		if (lastChange == null) {
+			return proposedNames;
+		}
+
+		Set<NameProposer> postProcessors = new HashSet<>();
+		for (DynamicChange change : changesByEntry.values()) {
+			proposedNames.startChange();
+
+			for (NameProposer proposer : this.getDynamicProposers(change.obfEntry())) {
+				if (proposer.isPostProcessor()) {
+					postProcessors.add(proposer);
+				} else {
+					proposeDynamicNames(proposer, remapper, change.obfEntry(), change.oldMapping(), change.newMapping(), proposedNames);
+				}
+			}
+		}
 
+		proposedNames.startChange();
 		for (NameProposer proposer : this.nameProposers) {
-			proposer.proposeDynamicNames(remapper, obfEntry, oldMapping, newMapping, proposedNames);
+			if (postProcessors.contains(proposer)) {
+				proposeDynamicNames(proposer, remapper, lastChange.obfEntry(), lastChange.oldMapping(), lastChange.newMapping(), proposedNames);
+			}
 		}
 
 		return proposedNames;
 	}
+
+	private List<NameProposer> getDynamicProposers(Entry<?> obfEntry) {
+		// Loading the mappings can affect any entry, a rename only affects the proposers depending on the renamed entry
+		if (obfEntry == null || this.dynamicProposalGraphDisabled) {
+			return this.nameProposers;
+		}
+
+		return this.getDynamicProposalGraph().getProposers(obfEntry);
+	}
+
+	private static void proposeDynamicNames(NameProposer proposer, EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> proposedNames) {
+		var event = new ProposeDynamicNamesEvent();
+		event.begin();
+
+		proposer.proposeDynamicNames(remapper, obfEntry, oldMapping, newMapping, proposedNames);
+
+		if (event.shouldCommit()) {
+			event.proposer = proposer.getSourcePluginId();
+			event.entryType = obfEntry == null ? null : obfEntry.getClass().getSimpleName();
+			event.commit();
+		}
+	}
+
+	/**
+	 * A change of the mapping of an entry, part of a batch.
+	 *
+	 * @param obfEntry the changed entry, or {@code null} if the mappings were loaded
+	 * @param oldMapping the mapping before the change
+	 * @param newMapping the mapping after the change
+	 */
+	public record DynamicChange(Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping) { }
 }
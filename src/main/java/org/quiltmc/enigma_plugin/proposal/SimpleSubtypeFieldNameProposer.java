@@ -47,6 +47,14 @@ public class SimpleSubtypeFieldNameProposer extends NameProposer {
 	@Override
 	public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) { }
 
+	@Override
+	public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+		// Renaming a type renames the fields and parameters of that type
+		this.index.forEachField((type, field, info) -> graph.addEntry(type));
+		this.index.forEachParam((type, param, entry) -> graph.addEntry(type));
+		return true;
+	}
+
 	@Override
 	public void proposeDynamicNames(
 			EntryRemapper remapper, Entry<?> obfEntry,
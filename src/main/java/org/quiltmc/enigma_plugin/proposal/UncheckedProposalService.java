@@ -26,7 +26,7 @@ import org.quiltmc.enigma_plugin.index.JarIndexer;
 
 public class UncheckedProposalService extends NameProposerService {
 	public UncheckedProposalService(JarIndexer indexer, EnigmaServiceContext<NameProposalService> context) {
-		super();
+		super(context);
 		this.addIfEnabled(context, Arguments.DISABLE_MAPPING_MERGE, () -> new MappingMergePackageProposer(context.getSingleArgument(Arguments.PACKAGE_NAME_OVERRIDES_PATH).orElse(null)));
 	}
 
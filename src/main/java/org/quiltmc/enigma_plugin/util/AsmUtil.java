@@ -158,30 +158,44 @@ public class AsmUtil implements Opcodes {
 	/**
 	 * Search for an instruction matching the given predicate in the stack of a method.
 	 *
-	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, Frame[], Predicate, boolean)
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
 	 */
 	public static AbstractInsnNode searchInsnInStack(InsnList insns, AbstractInsnNode frameInsn, Frame<SourceValue>[] frames, Predicate<AbstractInsnNode> insnPredicate) {
-		return searchInsnInStack(insns, frameInsn, frames, insnPredicate, false);
+		return searchInsnInStack(insns, frameInsn, StackSources.of(frames), insnPredicate, false);
 	}
 
 	/**
 	 * Search for an instruction matching the given predicate in the stack of a method.
 	 *
-	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, Frame[], Predicate)
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
 	 */
 	public static AbstractInsnNode searchInsnInStack(InsnList insns, AbstractInsnNode frameInsn, Frame<SourceValue>[] frames, Predicate<AbstractInsnNode> insnPredicate, boolean shallow) {
+		return searchInsnInStack(insns, frameInsn, StackSources.of(frames), insnPredicate, shallow);
+	}
+
+	/**
+	 * Search for an instruction matching the given predicate in the stack of a method.
+	 * Unless the search is shallow, the stacks of the static invocations of the frame instruction's owner and of the
+	 * constructor invocations in the stack are searched too.
+	 *
+	 * @param insns the instructions of the method
+	 * @param frameInsn the instruction to search the stack of
+	 * @param sources the stack sources of the method
+	 * @param insnPredicate the predicate of the searched instruction
+	 * @param shallow whether to only search the stack of the frame instruction
+	 * @return the found instruction, or {@code null}
+	 */
+	public static AbstractInsnNode searchInsnInStack(InsnList insns, AbstractInsnNode frameInsn, StackSources sources, Predicate<AbstractInsnNode> insnPredicate, boolean shallow) {
 		int frameIndex = insns.indexOf(frameInsn);
-		var frame = frames[frameIndex];
 
 		AbstractInsnNode lastStackInsn = null;
-		for (int i = 0; i < frame.getStackSize(); i++) {
-			var value = frame.getStack(i);
-			for (var stackInsn : value.insns) {
+		for (int i = 0; i < sources.getStackSize(frameIndex); i++) {
+			for (var stackInsn : sources.getSources(frameIndex, i)) {
 				if (insnPredicate.test(stackInsn)) {
 					return stackInsn;
 				} else if (stackInsn.getOpcode() == INVOKESTATIC && !shallow) {
 					if (!(frameInsn instanceof MethodInsnNode mInsn) || mInsn.owner.equals(((MethodInsnNode) stackInsn).owner)) {
-						return searchInsnInStack(insns, stackInsn, frames, insnPredicate, false);
+						return searchInsnInStack(insns, stackInsn, sources, insnPredicate, false);
 					}
 				}
 
@@ -195,12 +209,11 @@ public class AsmUtil implements Opcodes {
 			// changed the behavior for DUPS to replace the previous value
 			// Stack before: ..., NEW ..., DUP; after: ..., DUP, DUP
 			int searchFrameIndex = insns.indexOf(lastStackInsn) + 1;
-			var searchFrame = frames[searchFrameIndex];
 
-			while (searchFrame != null && searchFrameIndex <= frameIndex) {
+			while (searchFrameIndex < sources.size() && sources.isReachable(searchFrameIndex) && searchFrameIndex <= frameIndex) {
 				int count = 0;
-				for (int j = 0; j < searchFrame.getStackSize(); j++) {
-					if (frame.getStack(j).insns.contains(lastStackInsn)) {
+				for (int j = 0; j < sources.getStackSize(searchFrameIndex); j++) {
+					if (sources.getSources(searchFrameIndex, j).contains(lastStackInsn)) {
 						count++;
 						if (count == 2) {
 							break;
@@ -210,16 +223,13 @@ public class AsmUtil implements Opcodes {
 
 				if (count == 2) {
 					searchFrameIndex++;
-					if (searchFrameIndex < frames.length) {
-						searchFrame = frames[searchFrameIndex];
-					} else {
-						searchFrame = null;
-					}
 				} else {
 					var insn = insns.get(searchFrameIndex - 1); // This was the last instruction with a frame with two dups
 					if (insn != frameInsn) {
-						return searchInsnInStack(insns, insn, frames, insnPredicate, false);
+						return searchInsnInStack(insns, insn, sources, insnPredicate, false);
 					}
+
+					break;
 				}
 			}
 		}
@@ -230,11 +240,19 @@ public class AsmUtil implements Opcodes {
 	/**
 	 * Search a non-blank string constant in the stack of a method.
 	 *
-	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, Frame[], Predicate)
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
 	 */
 	public static String searchStringCstInStack(InsnList insns, AbstractInsnNode frameInsn, Frame<SourceValue>[] frames) {
-		var insn = searchInsnInStack(insns, frameInsn, frames,
-				insnNode -> insnNode instanceof LdcInsnNode ldc && ldc.cst instanceof String constant && !constant.isBlank());
+		return searchStringCstInStack(insns, frameInsn, StackSources.of(frames));
+	}
+
+	/**
+	 * Search a non-blank string constant in the stack of a method.
+	 *
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
+	 */
+	public static String searchStringCstInStack(InsnList insns, AbstractInsnNode frameInsn, StackSources sources) {
+		var insn = searchInsnInStack(insns, frameInsn, sources, AsmUtil::isStringCst, false);
 		if (insn instanceof LdcInsnNode ldc) {
 			return (String) ldc.cst;
 		}
@@ -245,12 +263,10 @@ public class AsmUtil implements Opcodes {
 	/**
 	 * Shallow search a non-blank string constant in the stack of a method.
 	 *
-	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, Frame[], Predicate)
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
 	 */
 	public static String shallowSearchStringCstInStack(InsnList insns, AbstractInsnNode frameInsn, Frame<SourceValue>[] frames) {
-		var insn = searchInsnInStack(insns, frameInsn, frames,
-				insnNode -> insnNode instanceof LdcInsnNode ldc && ldc.cst instanceof String constant && !constant.isBlank(),
-				true);
+		var insn = searchInsnInStack(insns, frameInsn, StackSources.of(frames), AsmUtil::isStringCst, true);
 		if (insn instanceof LdcInsnNode ldc) {
 			return (String) ldc.cst;
 		}
@@ -258,14 +274,27 @@ public class AsmUtil implements Opcodes {
 		return null;
 	}
 
+	private static boolean isStringCst(AbstractInsnNode insn) {
+		return insn instanceof LdcInsnNode ldc && ldc.cst instanceof String constant && !constant.isBlank();
+	}
+
 	/**
 	 * Search a static field, the parent of which isn't the given class, in the stack of a method.
 	 *
-	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, Frame[], Predicate)
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
 	 */
 	public static FieldInsnNode searchStaticFieldReferenceInStack(InsnList insns, AbstractInsnNode frameInsn, Frame<SourceValue>[] frames, String clazz) {
-		var insn = searchInsnInStack(insns, frameInsn, frames,
-				insnNode -> insnNode instanceof FieldInsnNode fieldInsn && fieldInsn.getOpcode() == GETSTATIC && !fieldInsn.owner.equals(clazz));
+		return searchStaticFieldReferenceInStack(insns, frameInsn, StackSources.of(frames), clazz);
+	}
+
+	/**
+	 * Search a static field, the parent of which isn't the given class, in the stack of a method.
+	 *
+	 * @see #searchInsnInStack(InsnList, AbstractInsnNode, StackSources, Predicate, boolean)
+	 */
+	public static FieldInsnNode searchStaticFieldReferenceInStack(InsnList insns, AbstractInsnNode frameInsn, StackSources sources, String clazz) {
+		var insn = searchInsnInStack(insns, frameInsn, sources,
+				insnNode -> insnNode instanceof FieldInsnNode fieldInsn && fieldInsn.getOpcode() == GETSTATIC && !fieldInsn.owner.equals(clazz), false);
 		if (insn instanceof FieldInsnNode fieldInsn) {
 			return fieldInsn;
 		}
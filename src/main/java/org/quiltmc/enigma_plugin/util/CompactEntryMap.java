@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A map from entries to entries, storing the {@linkplain EntryIdTable ids} of the keys and of the values
+ * in open-addressing int arrays instead of allocating a node per mapping.
+ * The entries themselves are only referenced by the id table, and are looked up when the map is read.
+ *
+ * <p>The views of the map don't support removals, use {@link #remove(Object)} instead.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class CompactEntryMap<K extends Entry<?>, V extends Entry<?>> extends AbstractMap<K, V> {
+	private static final int EMPTY = 0;
+
+	private final EntryIdTable ids;
+	private int[] keys; // Id + 1 of the key in each slot, or EMPTY
+	private int[] values; // Id of the value in each slot
+	private int size;
+
+	public CompactEntryMap(EntryIdTable ids) {
+		this(ids, Map.of());
+	}
+
+	/**
+	 * Creates a compact copy of the given map.
+	 *
+	 * @param ids the table assigning the ids of the keys and values
+	 * @param map the map to copy, without null values
+	 */
+	public CompactEntryMap(EntryIdTable ids, Map<? extends K, ? extends V> map) {
+		this.ids = ids;
+
+		int capacity = 16;
+		while (capacity < map.size() * 2) {
+			capacity <<= 1;
+		}
+
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+		this.putAll(map);
+	}
+
+	private int findSlot(int id) {
+		int mask = this.keys.length - 1;
+
+		for (int slot = EntryIdTable.mix(id) & mask; ; slot = (slot + 1) & mask) {
+			int key = this.keys[slot];
+			if (key == EMPTY || key == id + 1) {
+				return slot;
+			}
+		}
+	}
+
+	private int findSlot(Object key) {
+		int id = this.ids.getId(key);
+		if (id < 0) {
+			return -1;
+		}
+
+		int slot = this.findSlot(id);
+		return this.keys[slot] == EMPTY ? -1 : slot;
+	}
+
+	@SuppressWarnings("unchecked")
+	private K keyAt(int slot) {
+		return (K) this.ids.getEntry(this.keys[slot] - 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int slot) {
+		return (V) this.ids.getEntry(this.values[slot]);
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return this.findSlot(key) >= 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		int slot = this.findSlot(key);
+		return slot < 0 ? null : this.valueAt(slot);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (value == null) {
+			throw new NullPointerException("Compact maps can't hold null values");
+		}
+
+		int id = this.ids.getOrCreateId(key);
+		int valueId = this.ids.getOrCreateId(value);
+		int slot = this.findSlot(id);
+
+		if (this.keys[slot] != EMPTY) {
+			V old = this.valueAt(slot);
+			this.values[slot] = valueId;
+			return old;
+		}
+
+		this.keys[slot] = id + 1;
+		this.values[slot] = valueId;
+		this.size++;
+
+		// Keep the load factor under 0.5
+		if (this.size * 2 > this.keys.length) {
+			this.rehash(this.keys.length * 2);
+		}
+
+		return null;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = this.findSlot(oldKeys[i] - 1);
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		int slot = this.findSlot(key);
+		if (slot < 0) {
+			return null;
+		}
+
+		V old = this.valueAt(slot);
+		this.size--;
+
+		// Shift the following mappings back, so that no probe sequence is broken by the removed slot
+		int mask = this.keys.length - 1;
+		int free = slot;
+		for (int next = (free + 1) & mask; this.keys[next] != EMPTY; next = (next + 1) & mask) {
+			int home = EntryIdTable.mix(this.keys[next] - 1) & mask;
+
+			// Move the mapping if its home slot isn't cyclically between the free slot and its current slot
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				this.keys[free] = this.keys[next];
+				this.values[free] = this.values[next];
+				free = next;
+			}
+		}
+
+		this.keys[free] = EMPTY;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(this.keys, EMPTY);
+		this.size = 0;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (int slot = 0; slot < this.keys.length; slot++) {
+			if (this.keys[slot] != EMPTY) {
+				action.accept(this.keyAt(slot), this.valueAt(slot));
+			}
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return new SlotIterator<>() {
+					@Override
+					Map.Entry<K, V> get(int slot) {
+						return new SimpleImmutableEntry<>(CompactEntryMap.this.keyAt(slot), CompactEntryMap.this.valueAt(slot));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return CompactEntryMap.this.size;
+			}
+		};
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<K> iterator() {
+				return new SlotIterator<>() {
+					@Override
+					K get(int slot) {
+						return CompactEntryMap.this.keyAt(slot);
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return CompactEntryMap.this.containsKey(o);
+			}
+
+			@Override
+			public int size() {
+				return CompactEntryMap.this.size;
+			}
+		};
+	}
+
+	private abstract class SlotIterator<T> implements Iterator<T> {
+		private int slot = this.nextSlot(0);
+
+		abstract T get(int slot);
+
+		private int nextSlot(int from) {
+			int slot = from;
+			while (slot < CompactEntryMap.this.keys.length && CompactEntryMap.this.keys[slot] == EMPTY) {
+				slot++;
+			}
+
+			return slot;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.slot < CompactEntryMap.this.keys.length;
+		}
+
+		@Override
+		public T next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			T value = this.get(this.slot);
+			this.slot = this.nextSlot(this.slot + 1);
+			return value;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense integer ids to entries, starting from {@code 0}.
+ * The ids are stored in an open-addressing table, without allocating an object per entry.
+ * The table holds the only reference to the entries of the {@linkplain CompactEntryMap compact maps} using it.
+ *
+ * <p>Tables are not thread-safe, ids must not be created while other threads read the table.
+ */
+public final class EntryIdTable {
+	private static final int EMPTY = 0;
+
+	private Entry<?>[] entries = new Entry<?>[16];
+	private int[] slots = new int[32]; // Id + 1 of the entry in each slot, or EMPTY
+	private int size;
+
+	static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * {@return the id of the given entry, or {@code -1} if it doesn't have one or isn't an entry}
+	 */
+	public int getId(Object entry) {
+		if (entry == null) {
+			return -1;
+		}
+
+		int mask = this.slots.length - 1;
+
+		for (int slot = mix(entry.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+			int id = this.slots[slot] - 1;
+			if (id < 0) {
+				return -1;
+			} else if (this.entries[id].equals(entry)) {
+				return id;
+			}
+		}
+	}
+
+	/**
+	 * {@return the id of the given entry, assigning the next id to it if it doesn't have one yet}
+	 */
+	public int getOrCreateId(Entry<?> entry) {
+		int mask = this.slots.length - 1;
+		int slot = mix(entry.hashCode()) & mask;
+
+		for (; this.slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+			int id = this.slots[slot] - 1;
+			if (this.entries[id].equals(entry)) {
+				return id;
+			}
+		}
+
+		int id = this.size++;
+		if (id == this.entries.length) {
+			this.entries = Arrays.copyOf(this.entries, id * 2);
+		}
+
+		this.entries[id] = entry;
+		this.slots[slot] = id + 1;
+
+		// Keep the load factor under 0.5
+		if (this.size * 2 > this.slots.length) {
+			this.rehash(this.slots.length * 2);
+		}
+
+		return id;
+	}
+
+	private void rehash(int capacity) {
+		int[] slots = new int[capacity];
+		int mask = capacity - 1;
+
+		for (int id = 0; id < this.size; id++) {
+			int slot = mix(this.entries[id].hashCode()) & mask;
+			while (slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+
+			slots[slot] = id + 1;
+		}
+
+		this.slots = slots;
+	}
+
+	/**
+	 * {@return the entry with the given id}
+	 */
+	public Entry<?> getEntry(int id) {
+		if (id < 0 || id >= this.size) {
+			throw new IndexOutOfBoundsException("No entry with id " + id);
+		}
+
+		return this.entries[id];
+	}
+
+	/**
+	 * {@return the number of entries with an id}
+	 */
+	public int size() {
+		return this.size;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates entries, returning the same instance for equal entries.
+ * Sharing a pool between the indexes avoids keeping many copies of the same entries, and parsing their descriptors again.
+ * Pools can be used by multiple threads at once.
+ */
+public class EntryPool {
+	private final Map<String, ClassEntry> classes = new ConcurrentHashMap<>();
+	private final Map<MemberKey, FieldEntry> fields = new ConcurrentHashMap<>();
+	private final Map<MemberKey, MethodEntry> methods = new ConcurrentHashMap<>();
+	private final Map<LocalKey, LocalVariableEntry> locals = new ConcurrentHashMap<>();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder created = new LongAdder();
+
+	public ClassEntry classEntry(String name) {
+		this.requests.increment();
+		return this.classes.computeIfAbsent(name, n -> {
+			this.created.increment();
+			return new ClassEntry(n);
+		});
+	}
+
+	public FieldEntry fieldEntry(String owner, String name, String desc) {
+		return this.fieldEntry(this.classEntry(owner), name, desc);
+	}
+
+	public FieldEntry fieldEntry(ClassEntry parent, String name, String desc) {
+		this.requests.increment();
+		return this.fields.computeIfAbsent(new MemberKey(parent, name, desc), key -> {
+			this.created.increment();
+			return new FieldEntry(key.parent(), key.name(), new TypeDescriptor(key.desc()));
+		});
+	}
+
+	public MethodEntry methodEntry(String owner, String name, String desc) {
+		return this.methodEntry(this.classEntry(owner), name, desc);
+	}
+
+	public MethodEntry methodEntry(ClassEntry parent, String name, String desc) {
+		this.requests.increment();
+		return this.methods.computeIfAbsent(new MemberKey(parent, name, desc), key -> {
+			this.created.increment();
+			return new MethodEntry(key.parent(), key.name(), new MethodDescriptor(key.desc()));
+		});
+	}
+
+	public LocalVariableEntry localEntry(MethodEntry parent, int index) {
+		this.requests.increment();
+		return this.locals.computeIfAbsent(new LocalKey(parent, index), key -> {
+			this.created.increment();
+			return new LocalVariableEntry(key.parent(), key.index());
+		});
+	}
+
+	/**
+	 * {@return the number of entries which were requested but already existed in this pool}
+	 */
+	public long getDuplicatesAvoided() {
+		return this.requests.sum() - this.created.sum();
+	}
+
+	/**
+	 * {@return the number of entries in this pool}
+	 */
+	public int size() {
+		return this.classes.size() + this.fields.size() + this.methods.size() + this.locals.size();
+	}
+
+	/**
+	 * Removes every entry from this pool, and resets its statistics.
+	 * The entries are still valid afterward, but won't be returned again.
+	 */
+	public void clear() {
+		this.classes.clear();
+		this.fields.clear();
+		this.methods.clear();
+		this.locals.clear();
+		this.requests.reset();
+		this.created.reset();
+	}
+
+	private record MemberKey(ClassEntry parent, String name, String desc) { }
+
+	private record LocalKey(MethodEntry parent, int index) { }
+}
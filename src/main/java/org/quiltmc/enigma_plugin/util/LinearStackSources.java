@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.jspecify.annotations.Nullable;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stack sources computed by a single forward pass over a method without any branch, such as most registry-style static initializers.
+ * Only the instruction producing each stack value is tracked, the locals and the types of the values are ignored.
+ *
+ * <p>The sources are the same as the frames computed by an {@link org.objectweb.asm.tree.analysis.Analyzer Analyzer}
+ * with a {@link org.objectweb.asm.tree.analysis.SourceInterpreter SourceInterpreter}. Methods with jumps, switches,
+ * exception handlers, or stack operations depending on the size of the values aren't supported.
+ *
+ * <p>The stacks are stored as a persistent linked list: each instruction only references the top value of its stack,
+ * and each value references the value below it.
+ */
+public final class LinearStackSources implements StackSources, Opcodes {
+	private static final int EMPTY = -1;
+	private static final int UNREACHABLE = -2;
+
+	private final AbstractInsnNode[] insns;
+	// The top value of the stack before each instruction
+	private final int[] tops;
+	// The instruction producing each value, the value below it and the size of the stack up to it
+	private final int[] valueSources;
+	private final int[] valuesBelow;
+	private final int[] valueDepths;
+
+	private LinearStackSources(AbstractInsnNode[] insns, int[] tops, int[] valueSources, int[] valuesBelow, int[] valueDepths) {
+		this.insns = insns;
+		this.tops = tops;
+		this.valueSources = valueSources;
+		this.valuesBelow = valuesBelow;
+		this.valueDepths = valueDepths;
+	}
+
+	/**
+	 * Computes the stack sources of a straight-line method.
+	 *
+	 * @param method the method
+	 * @return the stack sources, or {@code null} if the method has instructions which aren't supported
+	 */
+	public static @Nullable LinearStackSources compute(MethodNode method) {
+		if (method.tryCatchBlocks != null && !method.tryCatchBlocks.isEmpty()) {
+			return null;
+		}
+
+		AbstractInsnNode[] insns = method.instructions.toArray();
+		int[] tops = new int[insns.length];
+		// Each instruction pushes at most two values
+		int[] valueSources = new int[insns.length * 2];
+		int[] valuesBelow = new int[insns.length * 2];
+		int[] valueDepths = new int[insns.length * 2];
+		int values = 0;
+
+		int top = EMPTY;
+		boolean ended = false;
+
+		for (int i = 0; i < insns.length; i++) {
+			AbstractInsnNode insn = insns[i];
+			int opcode = insn.getOpcode();
+
+			if (ended) {
+				if (opcode >= 0) {
+					return null; // Dead code, which could be a jump target
+				}
+
+				tops[i] = UNREACHABLE;
+				continue;
+			}
+
+			tops[i] = top;
+
+			if (opcode < 0) {
+				continue; // Labels, line numbers and frames
+			}
+
+			int pops;
+			int pushes;
+
+			if (opcode == DUP) {
+				// The duplicated value is replaced by two copies, see Frame.execute
+				pops = 1;
+				pushes = 2;
+			} else if (opcode == ATHROW || (opcode >= IRETURN && opcode <= RETURN)) {
+				ended = true;
+				continue;
+			} else {
+				int effect = getStackEffect(insn);
+				if (effect < 0) {
+					return null;
+				}
+
+				pops = effect >> 8;
+				pushes = effect & 0xFF;
+			}
+
+			for (int j = 0; j < pops; j++) {
+				if (top == EMPTY) {
+					return null;
+				}
+
+				top = valuesBelow[top];
+			}
+
+			for (int j = 0; j < pushes; j++) {
+				valueSources[values] = i;
+				valuesBelow[values] = top;
+				valueDepths[values] = top == EMPTY ? 1 : valueDepths[top] + 1;
+				top = values++;
+			}
+		}
+
+		return new LinearStackSources(insns, tops, valueSources, valuesBelow, valueDepths);
+	}
+
+	/**
+	 * {@return the number of values popped by the instruction, shifted by 8 bits, and the number of values pushed,
+	 * or {@code -1} if the instruction isn't supported}
+	 */
+	private static int getStackEffect(AbstractInsnNode insn) {
+		int opcode = insn.getOpcode();
+
+		if (opcode == NOP || opcode == IINC) {
+			return effect(0, 0);
+		} else if (opcode <= LDC || (opcode >= ILOAD && opcode <= ALOAD) || opcode == GETSTATIC || opcode == NEW) {
+			return effect(0, 1);
+		} else if (opcode >= IALOAD && opcode <= SALOAD) {
+			return effect(2, 1);
+		} else if ((opcode >= ISTORE && opcode <= ASTORE) || opcode == POP || opcode == PUTSTATIC || opcode == MONITORENTER || opcode == MONITOREXIT) {
+			return effect(1, 0);
+		} else if (opcode >= IASTORE && opcode <= SASTORE) {
+			return effect(3, 0);
+		} else if ((opcode >= IADD && opcode <= DREM) || (opcode >= ISHL && opcode <= LXOR) || (opcode >= LCMP && opcode <= DCMPG)) {
+			return effect(2, 1);
+		} else if ((opcode >= INEG && opcode <= DNEG) || (opcode >= I2L && opcode <= I2S) || opcode == GETFIELD
+				|| opcode == NEWARRAY || opcode == ANEWARRAY || opcode == ARRAYLENGTH || opcode == CHECKCAST || opcode == INSTANCEOF) {
+			return effect(1, 1);
+		} else if (opcode == PUTFIELD) {
+			return effect(2, 0);
+		} else if (insn instanceof MethodInsnNode methodInsn) {
+			return invokeEffect(methodInsn.desc, opcode == INVOKESTATIC ? 0 : 1);
+		} else if (insn instanceof InvokeDynamicInsnNode indyInsn) {
+			return invokeEffect(indyInsn.desc, 0);
+		} else if (insn instanceof MultiANewArrayInsnNode arrayInsn) {
+			return effect(arrayInsn.dims, 1);
+		}
+
+		// Jumps, switches, subroutines, and stack operations depending on the size of the values
+		return -1;
+	}
+
+	private static int invokeEffect(String desc, int receivers) {
+		return effect(Type.getArgumentCount(desc) + receivers, desc.endsWith(")V") ? 0 : 1);
+	}
+
+	private static int effect(int pops, int pushes) {
+		return pops << 8 | pushes;
+	}
+
+	@Override
+	public int size() {
+		return this.insns.length;
+	}
+
+	@Override
+	public boolean isReachable(int insnIndex) {
+		return this.tops[insnIndex] != UNREACHABLE;
+	}
+
+	@Override
+	public int getStackSize(int insnIndex) {
+		int top = this.tops[insnIndex];
+		return top < 0 ? 0 : this.valueDepths[top];
+	}
+
+	@Override
+	public Collection<AbstractInsnNode> getSources(int insnIndex, int slot) {
+		int value = this.tops[insnIndex];
+		for (int i = this.getStackSize(insnIndex) - 1; i > slot; i--) {
+			value = this.valuesBelow[value];
+		}
+
+		return List.of(this.insns[this.valueSources[value]]);
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.Collection;
+
+/**
+ * The instructions producing the values in the stack before each instruction of a method,
+ * like the {@link SourceValue} frames of an analyzed method.
+ *
+ * @see LinearStackSources
+ */
+public interface StackSources {
+	/**
+	 * Wraps the frames computed by an {@link org.objectweb.asm.tree.analysis.Analyzer Analyzer} with a source interpreter.
+	 *
+	 * @param frames the frames of the method
+	 * @return the stack sources of the frames
+	 */
+	static StackSources of(Frame<SourceValue>[] frames) {
+		return new StackSources() {
+			@Override
+			public int size() {
+				return frames.length;
+			}
+
+			@Override
+			public boolean isReachable(int insnIndex) {
+				return frames[insnIndex] != null;
+			}
+
+			@Override
+			public int getStackSize(int insnIndex) {
+				return frames[insnIndex].getStackSize();
+			}
+
+			@Override
+			public Collection<AbstractInsnNode> getSources(int insnIndex, int slot) {
+				return frames[insnIndex].getStack(slot).insns;
+			}
+		};
+	}
+
+	/**
+	 * {@return the number of instructions of the method}
+	 */
+	int size();
+
+	/**
+	 * {@return whether the instruction at the given index is reachable, and has a stack}
+	 */
+	boolean isReachable(int insnIndex);
+
+	/**
+	 * {@return the number of values in the stack before the instruction at the given index}
+	 */
+	int getStackSize(int insnIndex);
+
+	/**
+	 * {@return the instructions which may have produced a value in the stack before an instruction}
+	 *
+	 * @param insnIndex the index of the instruction
+	 * @param slot the index of the value in the stack, from the bottom
+	 */
+	Collection<AbstractInsnNode> getSources(int insnIndex, int slot);
+}
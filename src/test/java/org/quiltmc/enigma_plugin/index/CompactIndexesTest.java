@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.test.util.TestUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class CompactIndexesTest {
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"codecNameProposer",
+			"constantFieldNameProposer",
+			"constructorParamsNameProposer",
+			"delegateParametersNameProposer",
+			"getterSetterNameProposer",
+			"lambdaParametersProposer",
+			"recordComponentNameProposer"
+	})
+	public void testSameProposals(String sourceSet, @TempDir Path tempDir) throws IOException {
+		Path jar = TestUtil.obfJarPathOf(sourceSet);
+		Path profile = TestUtil.writeProfileWithIndexerArguments(tempDir.resolve("compact_profile.json"), Map.of(Arguments.COMPACT_INDEXES, "true"));
+		EntryRemapper hashed = TestUtil.setupEnigma(jar, TestUtil.DEFAULT_ENIGMA_PROFILE);
+		EntryRemapper compact = TestUtil.setupEnigma(jar, profile);
+
+		TestUtil.assertSameMappings(hashed, compact, "with compact indexes");
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.index.constant_fields.ConstantFieldIndex;
+import org.quiltmc.enigma_plugin.index.cache.IndexCache;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheReader;
+import org.quiltmc.enigma_plugin.index.cache.IndexCacheWriter;
+import org.quiltmc.enigma_plugin.test.util.TestUtil;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexCacheTest {
+	private static ClassNode createClass(String name, String superName) {
+		var node = new ClassNode();
+		node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, superName, null);
+		node.visitEnd();
+		return node;
+	}
+
+	private static ClassProvider createProvider(ClassNode... nodes) {
+		Map<String, ClassNode> classes = new HashMap<>();
+		for (ClassNode node : nodes) {
+			classes.put(node.name, node);
+		}
+
+		return new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				return classes.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return classes.keySet();
+			}
+		};
+	}
+
+	private static IndexCache createCache(Path path, List<Path> libraryFiles) {
+		var index = new CacheableIndex() {
+			@Override
+			public ParseDepth getParseDepth() {
+				return ParseDepth.CODE;
+			}
+
+			@Override
+			public void reset() {
+			}
+
+			@Override
+			public void writeCache(IndexCacheWriter out) {
+			}
+
+			@Override
+			public void readCache(IndexCacheReader in) {
+			}
+		};
+
+		return new IndexCache(path, List.of(index), new EntryPool(), MethodAnalysisCache.Budget.UNLIMITED, libraryFiles);
+	}
+
+	private static ClassNode readClass(Class<?> clazz) {
+		try (InputStream in = clazz.getResourceAsStream("/" + Type.getInternalName(clazz) + ".class")) {
+			var node = new ClassNode();
+			new ClassReader(in).accept(node, 0);
+			return node;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test
+	public void testChangedLibrary(@TempDir Path tempDir) throws IOException {
+		Path cachePath = tempDir.resolve("index.cache");
+		Path library = Files.writeString(tempDir.resolve("library.jar"), "library");
+		ClassNode indexed = createClass("a", "Library");
+
+		var cache = createCache(cachePath, List.of(library));
+		assertNull(cache.load(Set.of("a"), createProvider(indexed)));
+		cache.save();
+
+		var unchanged = createCache(cachePath, List.of(library)).load(Set.of("a"), createProvider(indexed));
+		assertNotNull(unchanged, "The cache wasn't loaded with the same library files");
+		assertTrue(unchanged.isEmpty());
+
+		// Only a library changed, the classes of which the indexes may have looked at
+		Files.writeString(library, "changed library");
+		assertNull(createCache(cachePath, List.of(library)).load(Set.of("a"), createProvider(indexed)));
+	}
+
+	@Test
+	public void testChangedClasses(@TempDir Path tempDir) {
+		Path cachePath = tempDir.resolve("index.cache");
+		ClassNode unchanged = createClass("a", "java/lang/Object");
+
+		var cache = createCache(cachePath, List.of());
+		assertNull(cache.load(Set.of("a", "b", "c"), createProvider(unchanged, createClass("b", "java/lang/Object"), createClass("c", "java/lang/Object"))));
+		cache.save();
+
+		// b now extends a, c was removed and d added
+		var changes = createCache(cachePath, List.of()).load(Set.of("a", "b", "d"), createProvider(unchanged, createClass("b", "a"), createClass("d", "java/lang/Object")));
+		assertNotNull(changes, "The cache wasn't loaded with the same configuration");
+		assertEquals(Set.of("b", "d"), changes.changed());
+		assertEquals(Set.of("c"), changes.removed());
+	}
+
+	@Test
+	public void testChangedClassWithConflictingLinks(@TempDir Path tempDir) {
+		Path cachePath = tempDir.resolve("index.cache");
+		List<ClassNode> classes = List.of(readClass(Named.class), readClass(OtherNamed.class), readClass(Conflicting.class), readClass(Linked.class));
+		List<String> scope = classes.stream().map(node -> node.name).toList();
+
+		var full = new ConstantFieldIndex();
+		classes.forEach(full::visitClassNode);
+		full.onIndexingEnded();
+
+		// Cache the results with another version of the class with the conflicting links
+		ClassNode oldConflicting = readClass(Conflicting.class);
+		oldConflicting.visitField(Opcodes.ACC_STATIC, "removed", "I", null, null);
+		var cached = new ConstantFieldIndex();
+		var cache = new IndexCache(cachePath, List.of(cached), new EntryPool(), MethodAnalysisCache.Budget.UNLIMITED, List.of());
+		assertNull(cache.load(scope, createProvider(classes.get(0), classes.get(1), oldConflicting, classes.get(3))));
+		List.of(classes.get(0), classes.get(1), oldConflicting, classes.get(3)).forEach(cached::visitClassNode);
+		cached.onIndexingEnded();
+		cache.save();
+
+		// Only the changed class is visited again, so its links are now the last ones
+		var updated = new ConstantFieldIndex();
+		var changes = new IndexCache(cachePath, List.of(updated), new EntryPool(), MethodAnalysisCache.Budget.UNLIMITED, List.of())
+				.load(scope, createProvider(classes.toArray(ClassNode[]::new)));
+		assertNotNull(changes, "The cache wasn't loaded with the same configuration");
+		assertEquals(Set.of(classes.get(2).name), changes.changed());
+		updated.removeClasses(changes.changed());
+		updated.visitClassNode(classes.get(2));
+		updated.onIndexingEnded();
+
+		assertEquals(full.getFields(), updated.getFields());
+		for (var field : full.getFields()) {
+			assertEquals(full.getName(field), updated.getName(field), "Different name for " + field);
+		}
+
+		// The first link of the class keeps the name, and the conflicting one isn't named
+		var something = new TypeDescriptor(Type.getDescriptor(Something.class));
+		var conflicting = new ClassEntry(classes.get(2).name);
+		assertEquals("FOO", updated.getName(new FieldEntry(conflicting, "FIRST", something)));
+		assertFalse(updated.hasName(new FieldEntry(conflicting, "SECOND", something)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"codecNameProposer",
+			"constantFieldNameProposer",
+			"constructorParamsNameProposer",
+			"delegateParametersNameProposer",
+			"getterSetterNameProposer",
+			"lambdaParametersProposer",
+			"recordComponentNameProposer"
+	})
+	public void testSameProposals(String sourceSet, @TempDir Path tempDir) throws IOException {
+		Path jar = TestUtil.obfJarPathOf(sourceSet);
+		Path cachePath = tempDir.resolve("index.cache").toAbsolutePath();
+		Path profile = TestUtil.writeProfileWithIndexerArguments(tempDir.resolve("cache_profile.json"), Map.of(Arguments.INDEX_CACHE_PATH, cachePath.toString()));
+
+		EntryRemapper uncached = TestUtil.setupEnigma(jar, TestUtil.DEFAULT_ENIGMA_PROFILE);
+		EntryRemapper cacheWritten = TestUtil.setupEnigma(jar, profile);
+		assertTrue(Files.isRegularFile(cachePath), "The index cache wasn't written");
+		EntryRemapper cacheLoaded = TestUtil.setupEnigma(jar, profile);
+
+		TestUtil.assertSameMappings(uncached, cacheWritten, "with a written cache");
+		TestUtil.assertSameMappings(uncached, cacheLoaded, "with a loaded cache");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"codecNameProposer",
+			"constantFieldNameProposer",
+			"constructorParamsNameProposer",
+			"delegateParametersNameProposer",
+			"getterSetterNameProposer",
+			"lambdaParametersProposer"
+	})
+	public void testUpdatedCache(String sourceSet, @TempDir Path tempDir) throws IOException {
+		Path jar = TestUtil.obfJarPathOf(sourceSet);
+		Path cachePath = tempDir.resolve("index.cache").toAbsolutePath();
+		Path profile = TestUtil.writeProfileWithIndexerArguments(tempDir.resolve("cache_profile.json"), Map.of(Arguments.INDEX_CACHE_PATH, cachePath.toString()));
+
+		// Start from the cache of another jar, so that the classes of this jar are added and the others removed
+		TestUtil.setupEnigma(TestUtil.obfJarPathOf("recordComponentNameProposer"), profile);
+		EntryRemapper uncached = TestUtil.setupEnigma(jar, TestUtil.DEFAULT_ENIGMA_PROFILE);
+		EntryRemapper updated = TestUtil.setupEnigma(jar, profile);
+
+		TestUtil.assertSameMappings(uncached, updated, "with an updated cache");
+	}
+
+	static class Something {
+	}
+
+	static class Named {
+		static final Something FIRST = create("foo");
+
+		private static Something create(String id) {
+			return new Something();
+		}
+	}
+
+	static class OtherNamed {
+		static final Something FIRST = create("foo");
+
+		private static Something create(String id) {
+			return new Something();
+		}
+	}
+
+	static class Conflicting {
+		static final Something FIRST = create(Named.FIRST);
+		static final Something SECOND = create(OtherNamed.FIRST);
+
+		private static Something create(Something parent) {
+			return new Something();
+		}
+	}
+
+	static class Linked {
+		static final Something LINKED = create(Conflicting.FIRST);
+
+		private static Something create(Something parent) {
+			return new Something();
+		}
+	}
+}
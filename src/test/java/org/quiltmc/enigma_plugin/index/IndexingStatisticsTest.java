@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class IndexingStatisticsTest {
+	@Test
+	public void testSummedVisits() {
+		var statistics = new IndexingStatistics();
+		// Two shards of the record index, then its end of indexing
+		statistics.addVisits(RecordIndex.class, 2, 5, 100, 10);
+		statistics.addVisits(RecordIndex.class, 3, 1, 50, 20);
+		statistics.addIndexingEnded(RecordIndex.class, 7, 4);
+		statistics.addVisits(CodecIndex.class, 1, 1, 1, 1);
+
+		var record = statistics.getIndex(RecordIndex.class);
+		assertEquals(5, record.getClasses());
+		assertEquals(6, record.getMethods());
+		assertEquals(150, record.getVisitNanos());
+		assertEquals(7, record.getEndNanos());
+		assertEquals(34, record.getAllocatedBytes());
+
+		assertEquals(List.of(RecordIndex.class, CodecIndex.class), List.copyOf(statistics.getIndexes().keySet()));
+		assertNull(statistics.getIndex(LoggerIndex.class));
+
+		// The returned statistics are copies
+		statistics.addVisits(RecordIndex.class, 1, 0, 0, 0);
+		assertEquals(5, record.getClasses());
+		assertEquals(6, statistics.getIndex(RecordIndex.class).getClasses());
+	}
+
+	@Test
+	public void testSkippedMethodsOrder() {
+		var statistics = new IndexingStatistics();
+		var first = new MethodAnalysisCache.SkippedMethod("a", "a", "(I)V", "too large", false);
+		var second = new MethodAnalysisCache.SkippedMethod("a", "b", "()V", "too large", false);
+		var third = new MethodAnalysisCache.SkippedMethod("b", "a", "()V", "too large", false);
+
+		// Added by two threads, in any order
+		statistics.addSkippedMethods(List.of(third, first));
+		statistics.addSkippedMethods(List.of(second));
+
+		assertEquals(List.of(first, second, third), statistics.getSkippedMethods());
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma_plugin.util.EntryPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LambdaParametersIndexTest {
+	private static final ClassProvider PROVIDER = new ClassProvider() {
+		@Override
+		public ClassNode get(String name) {
+			try (InputStream in = LambdaParametersIndexTest.class.getResourceAsStream("/" + name + ".class")) {
+				if (in == null) {
+					return null;
+				}
+
+				var node = new ClassNode();
+				new ClassReader(in).accept(node, 0);
+				return node;
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public Collection<String> getClassNames() {
+			return List.of();
+		}
+	};
+
+	@Test
+	public void testLambdaParams() {
+		var entryPool = new EntryPool();
+		var index = new LambdaParametersIndex();
+		index.setEntryPool(entryPool);
+
+		ClassNode lambdas = PROVIDER.get(Type.getInternalName(Lambdas.class));
+		index.visitClassNode(PROVIDER, lambdas);
+
+		MethodEntry combine = entryPool.methodEntry(Type.getInternalName(Combiner.class), "combine", "(JLjava/lang/String;)Ljava/lang/String;");
+		// The lambda body of capturing, the captured offset comes before the parameters of the functional method
+		MethodNode lambdaNode = lambdas.methods.stream()
+				.filter(method -> method.name.startsWith("lambda$capturing$"))
+				.findAny()
+				.orElseThrow();
+		MethodEntry lambda = entryPool.methodEntry(lambdas.name, lambdaNode.name, lambdaNode.desc);
+
+		assertEquals(List.of(entryPool.localEntry(lambda, 1)), index.streamLambdaParams(entryPool.localEntry(combine, 1)).toList());
+		assertEquals(List.of(entryPool.localEntry(lambda, 3)), index.streamLambdaParams(entryPool.localEntry(combine, 3)).toList());
+
+		// Neither the lambda of the interface without @FunctionalInterface nor the method reference are indexed
+		var functionalParams = new AtomicInteger();
+		index.forEachFunctionalParam((functionalParam, lambdaParams) -> functionalParams.incrementAndGet());
+		assertEquals(2, functionalParams.get());
+
+		MethodEntry apply = entryPool.methodEntry(Type.getInternalName(NotFunctional.class), "apply", "(Ljava/lang/String;)Ljava/lang/String;");
+		assertEquals(List.<LocalVariableEntry>of(), index.streamLambdaParams(entryPool.localEntry(apply, 1)).toList());
+	}
+
+	@FunctionalInterface
+	interface Combiner {
+		String combine(long count, String value);
+	}
+
+	interface NotFunctional {
+		String apply(String value);
+	}
+
+	static class Lambdas {
+		static Combiner capturing(int offset) {
+			return (count, value) -> value + (count + offset);
+		}
+
+		static NotFunctional notFunctional() {
+			return value -> value + "!";
+		}
+
+		static Combiner reference() {
+			return Lambdas::join;
+		}
+
+		private static String join(long count, String value) {
+			return value + count;
+		}
+	}
+}
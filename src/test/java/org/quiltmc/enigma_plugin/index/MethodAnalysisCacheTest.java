@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MethodAnalysisCacheTest implements Opcodes {
+	private static MethodNode createMethod(boolean branch) {
+		var method = new MethodNode(ACC_STATIC, "<clinit>", "()V", null, null);
+		method.visitCode();
+		for (int i = 0; i < 10; i++) {
+			method.visitLdcInsn("field" + i);
+			method.visitFieldInsn(PUTSTATIC, "Constants", "FIELD_" + i, "Ljava/lang/String;");
+		}
+
+		if (branch) {
+			var label = new Label();
+			method.visitInsn(ICONST_0);
+			method.visitJumpInsn(IFEQ, label);
+			method.visitLabel(label);
+		}
+
+		method.visitInsn(RETURN);
+		method.visitMaxs(1, 0);
+		method.visitEnd();
+		return method;
+	}
+
+	@Test
+	public void testInstructionBudget() {
+		var cache = new MethodAnalysisCache(new MethodAnalysisCache.Budget(10, 0));
+		var method = createMethod(true);
+
+		var failure = assertThrows(AnalyzerException.class, () -> cache.getFrames("Constants", method, MethodAnalysisCache.SOURCE));
+		// The failure is reused by the other indexes, and only reported once
+		assertSame(failure, assertThrows(AnalyzerException.class, () -> cache.getStackSources("Constants", method)));
+		assertEquals(1, cache.getSkippedMethods().size());
+
+		var skipped = cache.getSkippedMethods().get(0);
+		assertEquals("Constants", skipped.owner());
+		assertEquals("<clinit>", skipped.name());
+		assertEquals("()V", skipped.desc());
+		assertFalse(skipped.timedOut());
+	}
+
+	@Test
+	public void testTimeoutBudget() {
+		var cache = new MethodAnalysisCache(new MethodAnalysisCache.Budget(0, 1));
+		var method = new MethodNode(ACC_STATIC, "<clinit>", "()V", null, null);
+		method.visitCode();
+		// Enough edges for the analyzer to check the time
+		for (int i = 0; i < 4096; i++) {
+			method.visitInsn(NOP);
+		}
+
+		method.visitInsn(RETURN);
+		method.visitMaxs(0, 0);
+		method.visitEnd();
+
+		assertThrows(AnalyzerException.class, () -> cache.getFrames("Constants", method, MethodAnalysisCache.SOURCE));
+		assertEquals(1, cache.getSkippedMethods().size());
+		assertTrue(cache.getSkippedMethods().get(0).timedOut());
+	}
+
+	@Test
+	public void testFailuresPerKind() throws AnalyzerException {
+		var failingKind = new MethodAnalysisCache.Kind<>(() -> new SourceInterpreter(ASM9) {
+			@Override
+			public SourceValue newOperation(AbstractInsnNode insn) {
+				// Wrapped in an AnalyzerException by the analyzer
+				throw new IllegalStateException("Unsupported instruction");
+			}
+		});
+		var cache = new MethodAnalysisCache();
+		var method = createMethod(true);
+
+		assertThrows(AnalyzerException.class, () -> cache.getFrames("Constants", method, failingKind));
+		// The failure of another kind of analysis doesn't prevent this one
+		assertNotNull(cache.getFrames("Constants", method, MethodAnalysisCache.SOURCE));
+		assertEquals(1, cache.getSkippedMethods().size());
+	}
+
+	@Test
+	public void testLinearPassIgnoresBudget() throws AnalyzerException {
+		var cache = new MethodAnalysisCache(new MethodAnalysisCache.Budget(10, 0));
+
+		assertNotNull(cache.getStackSources("Constants", createMethod(false)));
+		assertEquals(1, cache.getLinearStackAnalyses());
+		assertEquals(0, cache.getSkippedMethods().size());
+	}
+
+	@Test
+	public void testUnlimitedBudget() throws AnalyzerException {
+		var cache = new MethodAnalysisCache();
+
+		assertNotNull(cache.getFrames("Constants", createMethod(true), MethodAnalysisCache.SOURCE));
+		assertEquals(0, cache.getSkippedMethods().size());
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index.constant_fields;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class ConstantFieldIndexTest {
+	private static final String SOMETHING = Type.getDescriptor(Something.class);
+
+	private static ClassNode readClass(Class<?> clazz) {
+		try (InputStream in = clazz.getResourceAsStream("/" + Type.getInternalName(clazz) + ".class")) {
+			var node = new ClassNode();
+			new ClassReader(in).accept(node, 0);
+			return node;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static FieldEntry fieldOf(Class<?> owner, String name) {
+		return new FieldEntry(new ClassEntry(Type.getInternalName(owner)), name, new TypeDescriptor(SOMETHING));
+	}
+
+	@Test
+	public void testRevisitedClass() {
+		var index = new ConstantFieldIndex();
+		ClassNode named = readClass(Named.class);
+		index.visitClassNode(named);
+		index.visitClassNode(readClass(Linked.class));
+		index.onIndexingEnded();
+
+		assertEquals("FOO", index.getName(fieldOf(Named.class, "FIRST")));
+		assertEquals("BAR_FOO", index.getName(fieldOf(Named.class, "SECOND")));
+		// Named after the field of the other class
+		assertEquals("FOO", index.getName(fieldOf(Linked.class, "LINKED")));
+
+		// The names found while visiting a removed class are dropped, and the links to its fields don't resolve anymore
+		index.removeClasses(Set.of(named.name));
+		index.findFieldNames();
+
+		assertFalse(index.hasName(fieldOf(Named.class, "FIRST")));
+		assertFalse(index.hasName(fieldOf(Linked.class, "LINKED")));
+
+		// Visiting the class again restores the names, and the links from the classes which weren't visited again
+		index.visitClassNode(named);
+		index.findFieldNames();
+
+		assertEquals("FOO", index.getName(fieldOf(Named.class, "FIRST")));
+		assertEquals("FOO", index.getName(fieldOf(Linked.class, "LINKED")));
+	}
+
+	static class Something {
+	}
+
+	static class Named {
+		static final Something FIRST = create("foo");
+		static final Something SECOND = create("foo/bar");
+
+		private static Something create(String id) {
+			return new Something();
+		}
+	}
+
+	static class Linked {
+		static final Something LINKED = create(Named.FIRST);
+
+		private static Something create(Something parent) {
+			return new Something();
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.index.simple_type_single;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.service.EnigmaServiceContext;
+import org.quiltmc.enigma.api.service.JarIndexerService;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma_plugin.Arguments;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SimpleTypeSingleIndexTest {
+	private static final String VALUE_A = "Lcom/example/ValueA;";
+	private static final String VALUE_B = "Lcom/example/ValueB;";
+	private static final String REGISTRY = """
+			{
+				"com/example/ValueA": {"local_name": "value", "exclusive": true, "fallback": ["valueA"]},
+				"com/example/ValueB": {"local_name": "value", "exclusive": true, "fallback": ["valueB"]}
+			}""";
+
+	@SuppressWarnings("unchecked")
+	private static EnigmaServiceContext<JarIndexerService> createContext(Path registry) {
+		return (EnigmaServiceContext<JarIndexerService>) Proxy.newProxyInstance(
+				SimpleTypeSingleIndexTest.class.getClassLoader(),
+				new Class<?>[] {EnigmaServiceContext.class},
+				(proxy, method, args) -> switch (method.getName()) {
+					case "getSingleArgument" -> Arguments.SIMPLE_TYPE_FIELD_NAMES_PATH.equals(args[0]) ? Optional.of(registry.toString()) : Optional.empty();
+					case "getPath" -> Path.of((String) args[0]);
+					default -> throw new UnsupportedOperationException(method.getName());
+				}
+		);
+	}
+
+	private static ClassNode createClass(String name, String outerClass, String... fieldDescs) {
+		var node = new ClassNode();
+		node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+		if (outerClass != null) {
+			node.visitOuterClass(outerClass, "create", "()Ljava/lang/Object;");
+		}
+
+		for (int i = 0; i < fieldDescs.length; i++) {
+			node.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "f" + i, fieldDescs[i], null, null);
+		}
+
+		node.visitEnd();
+		return node;
+	}
+
+	private static ClassProvider createProvider(List<ClassNode> nodes) {
+		Map<String, ClassNode> classes = new HashMap<>();
+		for (ClassNode node : nodes) {
+			classes.put(node.name, node);
+		}
+
+		return new ClassProvider() {
+			@Override
+			public ClassNode get(String name) {
+				return classes.get(name);
+			}
+
+			@Override
+			public Collection<String> getClassNames() {
+				return classes.keySet();
+			}
+		};
+	}
+
+	private static FieldEntry fieldOf(ClassNode owner, int index, String desc) {
+		return new FieldEntry(new ClassEntry(owner.name), "f" + index, new TypeDescriptor(desc));
+	}
+
+	@Test
+	public void testOuterClassContext(@TempDir Path tempDir) throws IOException {
+		Path registry = Files.writeString(tempDir.resolve("simple_type_field_names.json5"), REGISTRY);
+		var index = new SimpleTypeSingleIndex();
+		index.withContext(createContext(registry));
+
+		ClassNode outer = createClass("com/example/Outer", null, VALUE_A);
+		// A local class, the outer class fields are the initial context of its own fields
+		ClassNode local = createClass("com/example/Outer$1", outer.name, VALUE_A, VALUE_B);
+		List<ClassNode> nodes = List.of(outer, local);
+
+		ClassProvider provider = createProvider(nodes);
+		for (ClassNode node : nodes) {
+			index.visitClassNode(provider, node);
+		}
+
+		// The conflict in the local class must not give the outer class field one of its fallbacks
+		assertEquals("value", index.getField(fieldOf(outer, 0, VALUE_A)));
+		// Same type as the outer class field
+		assertNull(index.getField(fieldOf(local, 0, VALUE_A)));
+		assertEquals("valueB", index.getField(fieldOf(local, 1, VALUE_B)));
+	}
+}
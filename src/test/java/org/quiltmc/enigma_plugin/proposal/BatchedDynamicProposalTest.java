@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.proposal;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.service.EnigmaServiceContext;
+import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma_plugin.test.util.CommonDescriptors;
+import org.quiltmc.enigma_plugin.test.util.TestUtil;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.quiltmc.enigma_plugin.test.util.TestUtil.fieldOf;
+import static org.quiltmc.enigma_plugin.test.util.TestUtil.localOf;
+import static org.quiltmc.enigma_plugin.test.util.TestUtil.methodOf;
+import static org.quiltmc.enigma_plugin.test.util.TestUtil.typeDescOf;
+
+public class BatchedDynamicProposalTest implements CommonDescriptors {
+	private static final ClassEntry FIRST = new ClassEntry("a");
+	private static final ClassEntry SECOND = new ClassEntry("b");
+
+	private static FieldEntry instanceField(ClassEntry type) {
+		return new FieldEntry(type, "a", new TypeDescriptor("L" + type.getFullName() + ";"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static EnigmaServiceContext<NameProposalService> emptyContext() {
+		return (EnigmaServiceContext<NameProposalService>) Proxy.newProxyInstance(
+				BatchedDynamicProposalTest.class.getClassLoader(),
+				new Class<?>[] {EnigmaServiceContext.class},
+				(proxy, method, args) -> Optional.empty()
+		);
+	}
+
+	@Test
+	public void testBatch() {
+		// Names the instance field of a renamed class after it
+		var fieldProposer = new NameProposer("field") {
+			@Override
+			public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
+			}
+
+			@Override
+			public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+				graph.addEntryType(ClassEntry.class);
+				return true;
+			}
+
+			@Override
+			public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
+				if (obfEntry instanceof ClassEntry type) {
+					this.insertDynamicProposal(mappings, instanceField(type), newMapping.targetName());
+				}
+			}
+		};
+
+		List<Map<Entry<?>, EntryMapping>> postProcessed = new ArrayList<>();
+		var postProcessor = new NameProposer("post_processor") {
+			@Override
+			public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
+			}
+
+			@Override
+			public boolean isPostProcessor() {
+				return true;
+			}
+
+			@Override
+			public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
+				postProcessed.add(Map.copyOf(mappings));
+			}
+		};
+
+		var service = new NameProposerService(emptyContext()) {
+			{
+				this.add(null, indexer -> fieldProposer);
+				this.add(null, indexer -> postProcessor);
+			}
+
+			@Override
+			public String getId() {
+				return "test";
+			}
+		};
+
+		var proposedNames = service.getDynamicProposedNames(null, List.of(
+				new NameProposerService.DynamicChange(FIRST, null, new EntryMapping("one")),
+				new NameProposerService.DynamicChange(SECOND, null, new EntryMapping("two")),
+				new NameProposerService.DynamicChange(FIRST, null, new EntryMapping("three"))
+		));
+
+		assertEquals(2, proposedNames.size());
+		assertEquals("three", proposedNames.get(instanceField(FIRST)).targetName());
+		assertEquals("two", proposedNames.get(instanceField(SECOND)).targetName());
+
+		// The post-processor only ran once, over the names of every change
+		assertEquals(List.of(proposedNames), postProcessed);
+	}
+
+	@Test
+	public void testNamesFromEarlierChange() {
+		// Names the instance field of the second class after the one proposed for the first class, as if it was delegated to it
+		var fieldProposer = new NameProposer("field") {
+			@Override
+			public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
+			}
+
+			@Override
+			public void proposeDynamicNames(EntryRemapper remapper, Entry<?> obfEntry, EntryMapping oldMapping, EntryMapping newMapping, Map<Entry<?>, EntryMapping> mappings) {
+				if (FIRST.equals(obfEntry)) {
+					this.insertDynamicProposal(mappings, instanceField(FIRST), newMapping.targetName());
+				} else if (SECOND.equals(obfEntry) && mappings.get(instanceField(FIRST)) != null) {
+					this.insertDynamicProposal(mappings, instanceField(SECOND), mappings.get(instanceField(FIRST)).targetName() + "Copy");
+				}
+			}
+		};
+
+		var service = new NameProposerService(emptyContext()) {
+			{
+				this.add(null, indexer -> fieldProposer);
+			}
+
+			@Override
+			public String getId() {
+				return "test";
+			}
+		};
+
+		var proposedNames = service.getDynamicProposedNames(null, List.of(
+				new NameProposerService.DynamicChange(FIRST, null, new EntryMapping("one")),
+				new NameProposerService.DynamicChange(SECOND, null, new EntryMapping("two"))
+		));
+
+		assertEquals("one", proposedNames.get(instanceField(FIRST)).targetName());
+		assertEquals("oneCopy", proposedNames.get(instanceField(SECOND)).targetName());
+
+		// A single change is a batch of one change
+		assertEquals(Map.of(instanceField(FIRST), proposedNames.get(instanceField(FIRST))), service.getDynamicProposedNames(null, FIRST, null, new EntryMapping("one")));
+	}
+
+	@Test
+	public void testConflictFromEarlierChange() {
+		EnigmaProject project = TestUtil.openProject(TestUtil.obfJarPathOf("conflictFixProposer"), TestUtil.BUILD_RESOURCES.resolve("conflictFixProposer/" + ConventionalNameProposerTest.PROFILE_JSON));
+		EntryRemapper remapper = project.getRemapper();
+		remapper.insertDynamicallyProposedMappings(null, null, null);
+
+		var service = project.getEnigma().getServices().get(NameProposalService.TYPE).stream()
+				.filter(DefaultProposalService.class::isInstance)
+				.map(DefaultProposalService.class::cast)
+				.findFirst().orElseThrow();
+
+		var conflictTest = new ClassEntry("a/a/a");
+		MethodEntry constructor = methodOf(conflictTest, "<init>", V, I, typeDescOf("a/a/b"));
+		FieldEntry integer = fieldOf(conflictTest, "a", I);
+		MethodEntry unrelated = methodOf(conflictTest, "a", V, I, typeDescOf("a/a/c"));
+
+		// The first change gives the first constructor parameter the name of the second one, the last change doesn't touch the constructor
+		// note we bypass putMapping so that we can create a conflict
+		var conflictingMapping = new EntryMapping("idAble");
+		var unrelatedMapping = new EntryMapping("unrelated");
+		remapper.getMappings().insert(integer, conflictingMapping);
+		remapper.getMappings().insert(unrelated, unrelatedMapping);
+
+		var proposedNames = service.getDynamicProposedNames(remapper, List.of(
+				new NameProposerService.DynamicChange(integer, EntryMapping.OBFUSCATED, conflictingMapping),
+				new NameProposerService.DynamicChange(unrelated, EntryMapping.OBFUSCATED, unrelatedMapping)
+		));
+
+		assertEquals("idAble", proposedNames.get(localOf(constructor, 1)).targetName());
+		// The conflict fixer ran with the last change, and still moved the second parameter to its fallback name
+		assertEquals("identifiable", proposedNames.get(localOf(constructor, 2)).targetName());
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.proposal;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DynamicProposalGraphTest {
+	private static final ClassEntry TYPE = new ClassEntry("a");
+	private static final FieldEntry LINKED_FIELD = new FieldEntry(TYPE, "a", new TypeDescriptor("I"));
+	private static final FieldEntry OTHER_FIELD = new FieldEntry(TYPE, "b", new TypeDescriptor("I"));
+
+	private static NameProposer proposer(String id, Consumer<DynamicProposalGraph.Builder> dependencies) {
+		return new NameProposer(id) {
+			@Override
+			public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
+			}
+
+			@Override
+			public boolean addDynamicDependencies(DynamicProposalGraph.Builder graph) {
+				if (dependencies == null) {
+					return false;
+				}
+
+				dependencies.accept(graph);
+				return true;
+			}
+		};
+	}
+
+	@Test
+	public void testDispatch() {
+		var classes = proposer("classes", graph -> graph.addEntryType(ClassEntry.class));
+		var linked = proposer("linked", graph -> graph.addEntry(LINKED_FIELD));
+		var untargeted = proposer("untargeted", null);
+		var none = proposer("none", graph -> { });
+
+		var graph = DynamicProposalGraph.build(List.of(classes, linked, untargeted, none));
+
+		assertEquals(List.of(classes, untargeted), graph.getProposers(TYPE));
+		assertEquals(List.of(linked, untargeted), graph.getProposers(LINKED_FIELD));
+		assertEquals(List.of(untargeted), graph.getProposers(OTHER_FIELD));
+		assertEquals(1, graph.getEntryCount());
+	}
+
+	@Test
+	public void testRegistrationOrder() {
+		var first = proposer("first", graph -> graph.addEntry(LINKED_FIELD));
+		var second = proposer("second", null);
+		var third = proposer("third", graph -> graph.addEntries(List.of(LINKED_FIELD, OTHER_FIELD)));
+
+		var graph = DynamicProposalGraph.build(List.of(first, second, third));
+
+		assertEquals(List.of(first, second, third), graph.getProposers(LINKED_FIELD));
+		assertEquals(List.of(second, third), graph.getProposers(OTHER_FIELD));
+	}
+}
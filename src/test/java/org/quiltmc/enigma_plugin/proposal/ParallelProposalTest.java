@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.proposal;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.service.EnigmaServiceContext;
+import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma_plugin.Arguments;
+import org.quiltmc.enigma_plugin.test.util.TestUtil;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelProposalTest {
+	private static final ClassEntry SKIPPED = new ClassEntry("a");
+	private static final ClassEntry CONFLICTING = new ClassEntry("b");
+	private static final ClassEntry SECOND_ONLY = new ClassEntry("c");
+
+	@SuppressWarnings("unchecked")
+	private static EnigmaServiceContext<NameProposalService> createContext(boolean parallel) {
+		return (EnigmaServiceContext<NameProposalService>) Proxy.newProxyInstance(
+				ParallelProposalTest.class.getClassLoader(),
+				new Class<?>[] {EnigmaServiceContext.class},
+				(proxy, method, args) -> args != null && Arguments.PARALLEL_PROPOSAL.equals(args[0]) ? Optional.of(Boolean.toString(parallel)) : Optional.empty()
+		);
+	}
+
+	private static NameProposer createProposer(String id, Map<Entry<?>, String> names) {
+		return new NameProposer(id) {
+			@Override
+			public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
+				names.forEach((entry, name) -> this.insertProposal(mappings, entry, name.isEmpty() ? null : name));
+			}
+		};
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {false, true})
+	public void testConflictingProposals(boolean parallel) {
+		var service = new NameProposerService(createContext(parallel)) {
+			{
+				// An empty name proposes no name, which still prevents the next proposers from naming the entry
+				this.add(null, indexer -> createProposer("first", Map.of(SKIPPED, "", CONFLICTING, "first")));
+				this.add(null, indexer -> createProposer("second", Map.of(SKIPPED, "second", CONFLICTING, "second", SECOND_ONLY, "second")));
+			}
+
+			@Override
+			public String getId() {
+				return "test";
+			}
+		};
+
+		Map<Entry<?>, EntryMapping> proposedNames = service.getProposedNames(null, null);
+
+		assertEquals(3, proposedNames.size());
+		assertTrue(proposedNames.containsKey(SKIPPED));
+		assertNull(proposedNames.get(SKIPPED));
+		assertEquals("first", proposedNames.get(CONFLICTING).targetName());
+		assertEquals("second", proposedNames.get(SECOND_ONLY).targetName());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"codecNameProposer",
+			"constantFieldNameProposer",
+			"constructorParamsNameProposer",
+			"delegateParametersNameProposer",
+			"getterSetterNameProposer",
+			"recordComponentNameProposer"
+	})
+	public void testSameProposals(String sourceSet, @TempDir Path tempDir) throws IOException {
+		Path jar = TestUtil.obfJarPathOf(sourceSet);
+		Path profile = TestUtil.writeProfileWithProposerArguments(tempDir.resolve("parallel_profile.json"), Map.of(Arguments.PARALLEL_PROPOSAL, "true"));
+		EntryRemapper sequential = TestUtil.setupEnigma(jar, TestUtil.DEFAULT_ENIGMA_PROFILE);
+		EntryRemapper parallel = TestUtil.setupEnigma(jar, profile);
+
+		TestUtil.assertSameMappings(sequential, parallel, "with parallel proposal");
+	}
+}
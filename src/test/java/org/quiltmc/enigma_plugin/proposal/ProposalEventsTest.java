@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.proposal;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.service.EnigmaServiceContext;
+import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ProposalEventsTest {
+	private static final String PROPOSE_NAMES = "org.quiltmc.enigma_plugin.ProposeNames";
+	private static final String PROPOSE_DYNAMIC_NAMES = "org.quiltmc.enigma_plugin.ProposeDynamicNames";
+
+	@SuppressWarnings("unchecked")
+	private static EnigmaServiceContext<NameProposalService> emptyContext() {
+		return (EnigmaServiceContext<NameProposalService>) Proxy.newProxyInstance(
+				ProposalEventsTest.class.getClassLoader(),
+				new Class<?>[] {EnigmaServiceContext.class},
+				(proxy, method, args) -> Optional.empty()
+		);
+	}
+
+	private static NameProposer createProposer(String id, ClassEntry entry) {
+		return new NameProposer(id) {
+			@Override
+			public void insertProposedNames(Enigma enigma, JarIndex index, Map<Entry<?>, EntryMapping> mappings) {
+				this.insertProposal(mappings, entry, id);
+			}
+		};
+	}
+
+	@Test
+	public void testProposalEvents(@TempDir Path temp) throws IOException {
+		var first = createProposer("first", new ClassEntry("a"));
+		var second = createProposer("second", new ClassEntry("b"));
+		var service = new NameProposerService(emptyContext()) {
+			{
+				this.add(null, indexer -> first);
+				this.add(null, indexer -> second);
+			}
+
+			@Override
+			public String getId() {
+				return "test";
+			}
+		};
+
+		Path dump = temp.resolve("proposal.jfr");
+		try (var recording = new Recording()) {
+			recording.enable(PROPOSE_NAMES).withThreshold(Duration.ZERO);
+			recording.enable(PROPOSE_DYNAMIC_NAMES).withThreshold(Duration.ZERO);
+			recording.start();
+
+			service.getProposedNames(null, null);
+			service.getDynamicProposedNames(null, null, null, null);
+
+			recording.stop();
+			recording.dump(dump);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+		List<RecordedEvent> proposeNames = events.stream().filter(event -> event.getEventType().getName().equals(PROPOSE_NAMES)).toList();
+		assertEquals(List.of(first.getSourcePluginId(), second.getSourcePluginId()), proposeNames.stream().map(event -> event.getString("proposer")).toList());
+		// The total number of names after each proposer ran
+		assertEquals(List.of(1, 2), proposeNames.stream().map(event -> event.getInt("proposedNames")).toList());
+
+		// Loading the mappings runs every proposer, without a renamed entry
+		List<RecordedEvent> proposeDynamicNames = events.stream().filter(event -> event.getEventType().getName().equals(PROPOSE_DYNAMIC_NAMES)).toList();
+		assertEquals(List.of(first.getSourcePluginId(), second.getSourcePluginId()), proposeDynamicNames.stream().map(event -> event.getString("proposer")).toList());
+		assertNull(proposeDynamicNames.get(0).getString("entryType"));
+	}
+}
@@ -16,6 +16,9 @@
 
 package org.quiltmc.enigma_plugin.test.util;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.junit.jupiter.api.Assertions;
 import org.opentest4j.AssertionFailedError;
 import org.quiltmc.enigma.api.Enigma;
@@ -27,6 +30,7 @@ import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
 import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
 import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
@@ -38,7 +42,11 @@ import org.quiltmc.enigma_plugin.QuiltEnigmaPlugin;
 import org.quiltmc.enigma_plugin.proposal.ConventionalNameProposerTest;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public final class TestUtil {
@@ -65,6 +73,20 @@ public final class TestUtil {
 	}
 
 	public static EntryRemapper setupEnigma(Path jar, Path profile) {
+		EntryRemapper remapper = openProject(jar, profile).getRemapper();
+
+		// Manually fire dynamic proposals
+		remapper.insertDynamicallyProposedMappings(null, null, null);
+
+		return remapper;
+	}
+
+	/**
+	 * Opens a jar without firing the dynamic proposals, see {@link #setupEnigma(Path, Path)}.
+	 *
+	 * @return the project of the jar, the enigma of which gives access to the services
+	 */
+	public static EnigmaProject openProject(Path jar, Path profile) {
 		final EnigmaProfile enigmaProfile;
 		try {
 			enigmaProfile = EnigmaProfile.read(profile);
@@ -81,12 +103,77 @@ public final class TestUtil {
 			throw new RuntimeException(e);
 		}
 
-		EntryRemapper remapper = project.getRemapper();
+		return project;
+	}
 
-		// Manually fire dynamic proposals
-		remapper.insertDynamicallyProposedMappings(null, null, null);
+	/**
+	 * Writes a copy of the {@linkplain #DEFAULT_ENIGMA_PROFILE default profile} with additional arguments for the jar indexer.
+	 *
+	 * @param path the path of the new profile
+	 * @param arguments the additional arguments
+	 * @return the path of the new profile
+	 */
+	public static Path writeProfileWithIndexerArguments(Path path, Map<String, String> arguments) throws IOException {
+		return writeProfileWithArguments(path, "jar_indexer", QuiltEnigmaPlugin.INDEX_SERVICE_ID, arguments);
+	}
 
-		return remapper;
+	/**
+	 * Writes a copy of the {@linkplain #DEFAULT_ENIGMA_PROFILE default profile} with additional arguments for the name proposal service.
+	 *
+	 * @param path the path of the new profile
+	 * @param arguments the additional arguments
+	 * @return the path of the new profile
+	 */
+	public static Path writeProfileWithProposerArguments(Path path, Map<String, String> arguments) throws IOException {
+		return writeProfileWithArguments(path, "name_proposal", QuiltEnigmaPlugin.NAME_PROPOSAL_SERVICE_ID, arguments);
+	}
+
+	private static Path writeProfileWithArguments(Path path, String serviceType, String serviceId, Map<String, String> arguments) throws IOException {
+		JsonObject profile = JsonParser.parseString(Files.readString(DEFAULT_ENIGMA_PROFILE)).getAsJsonObject();
+
+		for (JsonElement service : profile.getAsJsonObject("services").getAsJsonArray(serviceType)) {
+			JsonObject serviceObject = service.getAsJsonObject();
+			if (serviceObject.get("id").getAsString().equals(serviceId)) {
+				arguments.forEach(serviceObject.getAsJsonObject("args")::addProperty);
+			}
+		}
+
+		Files.writeString(path, profile.toString());
+		return path;
+	}
+
+	/**
+	 * {@return all the classes, fields, methods and parameters of the given index}
+	 */
+	public static List<Entry<?>> collectEntries(EntryIndex index) {
+		List<Entry<?>> entries = new ArrayList<>();
+		entries.addAll(index.getClasses());
+		entries.addAll(index.getFields());
+
+		for (MethodEntry method : index.getMethods()) {
+			entries.add(method);
+
+			int lvtIndex = index.getMethodAccess(method).isStatic() ? 0 : 1;
+			for (ArgumentDescriptor argument : method.getDesc().getArgumentDescs()) {
+				entries.add(new LocalVariableEntry(method, lvtIndex));
+				lvtIndex += argument.getSize();
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Asserts that both remappers have the same mapping for each of the {@linkplain #collectEntries(EntryIndex) entries} of the jar.
+	 *
+	 * @param expected the remapper of the reference setup
+	 * @param actual the remapper of the tested setup
+	 * @param setup a description of the tested setup, for the failure messages
+	 */
+	public static void assertSameMappings(EntryRemapper expected, EntryRemapper actual, String setup) {
+		for (Entry<?> entry : collectEntries(expected.getJarIndex().getIndex(EntryIndex.class))) {
+			Assertions.assertEquals(expected.getMapping(entry), actual.getMapping(entry), () -> "Different mappings for " + entry + " " + setup);
+		}
 	}
 
 	public static void assertProposal(String name, Entry<?> entry, EntryRemapper remapper) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CompactEntryMapTest {
+	private static FieldEntry field(ClassEntry owner, String name) {
+		return new FieldEntry(owner, name, new TypeDescriptor("I"));
+	}
+
+	@Test
+	public void testSameAsHashMap() {
+		var random = new Random(42);
+		var ids = new EntryIdTable();
+		Map<FieldEntry, ClassEntry> expected = new HashMap<>();
+		Map<FieldEntry, ClassEntry> compact = new CompactEntryMap<>(ids);
+
+		List<FieldEntry> fields = new ArrayList<>();
+		List<ClassEntry> classes = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			fields.add(field(new ClassEntry("a/C" + (i % 37)), "f" + i));
+			classes.add(new ClassEntry("a/D" + i));
+		}
+
+		for (int i = 0; i < 20000; i++) {
+			FieldEntry field = fields.get(random.nextInt(fields.size()));
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(field), compact.remove(field), () -> "Different removed value for " + field);
+			} else {
+				ClassEntry value = classes.get(random.nextInt(classes.size()));
+				assertEquals(expected.put(field, value), compact.put(field, value), () -> "Different previous value for " + field);
+			}
+
+			assertEquals(expected.size(), compact.size());
+		}
+
+		for (FieldEntry field : fields) {
+			assertEquals(expected.get(field), compact.get(field), () -> "Different value for " + field);
+			assertEquals(expected.containsKey(field), compact.containsKey(field));
+		}
+
+		assertEquals(expected, compact);
+		assertEquals(expected.keySet(), new HashSet<>(compact.keySet()));
+	}
+
+	@Test
+	public void testCopy() {
+		var ids = new EntryIdTable();
+		var owner = new ClassEntry("a/B");
+		var type = new ClassEntry("a/C");
+		Map<FieldEntry, ClassEntry> map = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			map.put(field(owner, "f" + i), type);
+		}
+
+		var compact = new CompactEntryMap<>(ids, map);
+		assertEquals(map, compact);
+		// The keys and the shared value, each stored once
+		assertEquals(101, ids.size());
+		assertNull(compact.get(field(owner, "missing")));
+		assertNull(compact.get("not an entry"));
+
+		compact.clear();
+		assertEquals(0, compact.size());
+		assertNull(compact.get(field(owner, "f0")));
+	}
+}
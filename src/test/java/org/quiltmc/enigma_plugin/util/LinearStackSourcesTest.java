@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 QuiltMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quiltmc.enigma_plugin.util;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.quiltmc.enigma_plugin.test.util.TestUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinearStackSourcesTest implements Opcodes {
+	private static void assertSameSources(String owner, MethodNode method, LinearStackSources linear) throws AnalyzerException {
+		StackSources frames = StackSources.of(new Analyzer<>(new SourceInterpreter()).analyze(owner, method));
+		String name = owner + "." + method.name + method.desc;
+
+		assertEquals(frames.size(), linear.size(), name);
+		for (int i = 0; i < frames.size(); i++) {
+			assertEquals(frames.isReachable(i), linear.isReachable(i), name + " @" + i);
+			if (!frames.isReachable(i)) {
+				continue;
+			}
+
+			assertEquals(frames.getStackSize(i), linear.getStackSize(i), name + " @" + i);
+			for (int j = 0; j < frames.getStackSize(i); j++) {
+				assertEquals(new HashSet<>(frames.getSources(i, j)), new HashSet<>(linear.getSources(i, j)), name + " @" + i + ", " + j);
+			}
+		}
+	}
+
+	@Test
+	public void testStraightLine() throws AnalyzerException {
+		var method = new MethodNode(ACC_STATIC, "<clinit>", "()V", null, null);
+		method.visitCode();
+		method.visitLdcInsn("stone");
+		method.visitTypeInsn(NEW, "Block");
+		method.visitInsn(DUP);
+		method.visitLdcInsn("settings");
+		method.visitMethodInsn(INVOKESPECIAL, "Block", "<init>", "(Ljava/lang/String;)V", false);
+		method.visitMethodInsn(INVOKESTATIC, "Blocks", "register", "(Ljava/lang/String;LBlock;)LBlock;", false);
+		method.visitFieldInsn(PUTSTATIC, "Blocks", "STONE", "LBlock;");
+		method.visitInsn(ICONST_1);
+		method.visitInsn(I2L);
+		method.visitVarInsn(LSTORE, 0);
+		method.visitInsn(RETURN);
+		method.visitMaxs(4, 2);
+		method.visitEnd();
+
+		LinearStackSources linear = LinearStackSources.compute(method);
+		assertNotNull(linear);
+		assertSameSources("Blocks", method, linear);
+	}
+
+	@Test
+	public void testFallback() {
+		var method = new MethodNode(ACC_STATIC, "<clinit>", "()V", null, null);
+		var label = new Label();
+		method.visitCode();
+		method.visitInsn(ICONST_0);
+		method.visitJumpInsn(IFEQ, label);
+		method.visitLabel(label);
+		method.visitInsn(RETURN);
+		method.visitEnd();
+
+		assertNull(LinearStackSources.compute(method));
+
+		var swap = new MethodNode(ACC_STATIC, "<clinit>", "()V", null, null);
+		swap.visitCode();
+		swap.visitInsn(ICONST_0);
+		swap.visitInsn(ICONST_1);
+		swap.visitInsn(SWAP);
+		swap.visitInsn(POP2);
+		swap.visitInsn(RETURN);
+		swap.visitEnd();
+
+		assertNull(LinearStackSources.compute(swap));
+	}
+
+	@Test
+	public void testSameAsAnalyzer() throws IOException, AnalyzerException {
+		int linearMethods = 0;
+
+		try (var in = new JarInputStream(Files.newInputStream(TestUtil.obfJarPathOf("complete")))) {
+			JarEntry entry;
+			while ((entry = in.getNextJarEntry()) != null) {
+				if (!entry.getName().endsWith(".class")) {
+					continue;
+				}
+
+				var node = new ClassNode();
+				new ClassReader(in.readAllBytes()).accept(node, 0);
+
+				for (MethodNode method : node.methods) {
+					LinearStackSources linear = LinearStackSources.compute(method);
+					if (linear != null) {
+						assertSameSources(node.name, method, linear);
+						linearMethods++;
+					}
+				}
+			}
+		}
+
+		assertTrue(linearMethods > 0);
+	}
+}